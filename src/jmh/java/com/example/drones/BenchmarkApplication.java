@@ -0,0 +1,25 @@
+package com.example.drones;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Application context for benchmarks: embedded H2 with preloaded data, no web server,
+ * logs, images and outbox go to target directory, delivery lifecycle is off so benchmarked drones keep their states.
+ */
+public final class BenchmarkApplication {
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return SpringApplication.run(DronesApplication.class,
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.file.name=target/benchmarks/benchmarks.log",
+                "--drones.images.path=target/benchmarks/images",
+                "--drones.loading.spool.path=target/benchmarks/spool",
+                "--drones.outbox.file.path=target/benchmarks/outbox.ndjson",
+                "--drones.lifecycle.enabled=false");
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.drones.dispatch;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to plan a manifest of {@link #manifestSize} medications across {@link #fleetSize} available drones
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DispatchPlannerBenchmark {
+    @Param({"1000", "10000"})
+    private int manifestSize;
+
+    @Param({"10", "50"})
+    private int fleetSize;
+
+    private final DispatchPlanner dispatchPlanner = new DispatchPlanner();
+    private int[] capacities;
+    private int[] weights;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        capacities = new int[fleetSize];
+        for (int i = 0; i < fleetSize; i++) {
+            capacities[i] = 100 * (1 + random.nextInt(5));
+        }
+        weights = new int[manifestSize];
+        for (int i = 0; i < manifestSize; i++) {
+            weights[i] = 1 + random.nextInt(100);
+        }
+    }
+
+    @Benchmark
+    public int[] plan() {
+        return dispatchPlanner.plan(capacities, weights);
+    }
+}
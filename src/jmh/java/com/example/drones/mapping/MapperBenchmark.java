@@ -0,0 +1,97 @@
+package com.example.drones.mapping;
+
+import com.example.drones.dto.DroneDTO;
+import com.example.drones.dto.MedicationDTO;
+import com.example.drones.enums.DroneModel;
+import com.example.drones.enums.DroneState;
+import com.example.drones.index.DroneSnapshot;
+import com.example.drones.model.Drone;
+import com.example.drones.model.Medication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MapStruct conversions of drones and medications, collections of {@link #fleetSize} drones
+ * with {@link #manifestSize} medications each
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MapperBenchmark {
+    @Param({"100", "10000"})
+    private int fleetSize;
+
+    @Param({"1", "10"})
+    private int manifestSize;
+
+    private final MedicationMapper medicationMapper = new MedicationMapperImpl();
+    private final DroneMapper droneMapper = new DroneMapperImpl();
+    private List<Drone> drones;
+    private List<DroneSnapshot> snapshots;
+    private List<Medication> medications;
+    private List<MedicationDTO> medicationDTOs;
+
+    @Setup
+    public void setUp() {
+        ReflectionTestUtils.setField(droneMapper, "medicationMapper", medicationMapper);
+        drones = new ArrayList<>(fleetSize);
+        snapshots = new ArrayList<>(fleetSize);
+        for (long id = 0; id < fleetSize; id++) {
+            Drone drone = Drone.builder()
+                    .id(id)
+                    .serialNumber("SN-" + id)
+                    .droneModel(DroneModel.HEAVYWEIGHT)
+                    .weightLimit(500)
+                    .batteryCapacity(100)
+                    .droneState(DroneState.IDLE)
+                    .build();
+            List<Medication> droneMedications = new ArrayList<>(manifestSize);
+            for (long i = 0; i < manifestSize; i++) {
+                droneMedications.add(Medication.builder()
+                        .id(id * manifestSize + i)
+                        .name("Medication-" + i)
+                        .code("MED_" + i)
+                        .weight(1)
+                        .imageHash("hash")
+                        .drone(drone)
+                        .build());
+            }
+            drone.setMedications(droneMedications);
+            drones.add(drone);
+            snapshots.add(DroneSnapshot.of(drone));
+        }
+        medications = drones.get(0).getMedications();
+        medicationDTOs = medicationMapper.toDTOs(medications);
+    }
+
+    @Benchmark
+    public List<DroneDTO> dronesToDTOs() {
+        return droneMapper.toDTOs(drones);
+    }
+
+    @Benchmark
+    public List<DroneDTO> snapshotsToDTOs() {
+        return droneMapper.snapshotsToDTOs(snapshots);
+    }
+
+    @Benchmark
+    public List<MedicationDTO> medicationsToDTOs() {
+        return medicationMapper.toDTOs(medications);
+    }
+
+    @Benchmark
+    public List<Medication> medicationsToEntities() {
+        return medicationMapper.toEntities(medicationDTOs);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.drones.service;
+
+import com.example.drones.BenchmarkApplication;
+import com.example.drones.dto.DroneDTO;
+import com.example.drones.dto.DroneRegisterDTO;
+import com.example.drones.dto.MedicationDTO;
+import com.example.drones.enums.DroneModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * DroneService hot paths on embedded H2: registration, loading of medications, available drones.
+ * Every benchmark runs in its own fork with a fresh database of preloaded drones plus {@link #fleetSize} ones.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DroneServiceBenchmark {
+    private static final byte[] IMAGE = new byte[4096];
+
+    /**
+     * Drones registered on top of preloaded ones
+     */
+    @Param({"100", "10000"})
+    private int fleetSize;
+
+    /**
+     * Medications loaded to drone per request
+     */
+    @Param({"1", "10"})
+    private int manifestSize;
+
+    private ConfigurableApplicationContext context;
+    private DroneService droneService;
+    private List<MultipartFile> files;
+    private long serialNumber;
+    private long medicationNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        droneService = context.getBean(DroneService.class);
+
+        List<DroneRegisterDTO> fleet = IntStream.range(0, fleetSize)
+                .mapToObj(i -> registerDTO())
+                .collect(Collectors.toList());
+        droneService.registerBatch(fleet.iterator());
+        files = IntStream.range(0, manifestSize)
+                .mapToObj(i -> new MockMultipartFile("files", "image.png", "image/png", IMAGE))
+                .collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public DroneDTO register() {
+        return droneService.register(registerDTO());
+    }
+
+    @Benchmark
+    public void addMedication(Loading loading) {
+        droneService.addMedication(manifest(loading.droneId), files);
+    }
+
+    @Benchmark
+    public List<DroneDTO> getAllAvailableDrones() {
+        return droneService.getAllAvailableDrones();
+    }
+
+    private DroneRegisterDTO registerDTO() {
+        return DroneRegisterDTO.builder()
+                .serialNumber("BENCH-" + serialNumber++)
+                .droneModel(DroneModel.HEAVYWEIGHT)
+                .batteryCapacity(100)
+                .weightLimit(500)
+                .build();
+    }
+
+    private List<MedicationDTO> manifest(Long droneId) {
+        List<MedicationDTO> medicationDTOs = new ArrayList<>(manifestSize);
+        for (int i = 0; i < manifestSize; i++) {
+            medicationDTOs.add(MedicationDTO.builder()
+                    .name("Medication-" + medicationNumber++)
+                    .code("MED_" + i)
+                    .weight(1)
+                    .droneId(droneId)
+                    .build());
+        }
+        return medicationDTOs;
+    }
+
+    /**
+     * Drone to load, a fresh one is registered outside of measurement, so loading never exceeds weight limit
+     * and loaded drones are unloaded only by delivery lifecycle
+     */
+    @State(Scope.Benchmark)
+    public static class Loading {
+        private Long droneId;
+
+        @Setup(Level.Invocation)
+        public void nextDrone(DroneServiceBenchmark benchmark) {
+            droneId = benchmark.droneService.register(benchmark.registerDTO()).getId();
+        }
+    }
+}
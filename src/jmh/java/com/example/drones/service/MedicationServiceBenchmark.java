@@ -0,0 +1,59 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.MedicationDTO;
+import com.example.drones.metrics.DroneMetrics;
+import com.example.drones.model.Drone;
+import com.example.drones.validation.MedicationValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Medication manifest check of MedicationService, no database is involved
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MedicationServiceBenchmark {
+    /**
+     * Medications in manifest
+     */
+    @Param({"10", "1000"})
+    private int manifestSize;
+
+    private MedicationService medicationService;
+    private List<MedicationDTO> medicationDTOs;
+    private Drone drone;
+
+    @Setup
+    public void setUp() {
+        medicationService = new MedicationService(null, null, null, null, new MedicationValidator(),
+                new DroneMetrics(new SimpleMeterRegistry()), null, null);
+        medicationDTOs = new ArrayList<>(manifestSize);
+        for (int i = 0; i < manifestSize; i++) {
+            medicationDTOs.add(MedicationDTO.builder()
+                    .name("Medication-" + i)
+                    .code("MED_" + i)
+                    .weight(1)
+                    .build());
+        }
+        drone = Drone.builder()
+                .weightLimit(Integer.MAX_VALUE)
+                .build();
+    }
+
+    @Benchmark
+    public void checkMedication() {
+        medicationService.checkMedication(medicationDTOs, drone);
+    }
+}
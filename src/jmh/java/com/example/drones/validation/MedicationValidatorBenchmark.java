@@ -0,0 +1,75 @@
+package com.example.drones.validation;
+
+import com.example.drones.dto.MedicationDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-item cost of medication manifest validation: regex based checks (as it was) vs {@link MedicationValidator}.
+ * Every invocation validates {@link #ITEMS} medications, so scores are per medication.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MedicationValidatorBenchmark {
+    private static final int ITEMS = 1000;
+
+    /**
+     * Share of medications with invalid name, percent
+     */
+    @Param({"0", "10"})
+    private int invalidPercent;
+
+    private final MedicationValidator medicationValidator = new MedicationValidator();
+    private List<MedicationDTO> manifest;
+
+    @Setup
+    public void setUp() {
+        manifest = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            String name = i % 100 < invalidPercent ? "Medication #" + i : "Medication-" + i;
+            manifest.add(MedicationDTO.builder()
+                    .name(name)
+                    .code("MED_CODE_" + i)
+                    .weight(i % 10)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public void regex(Blackhole blackhole) {
+        List<String> violations = new ArrayList<>();
+        for (MedicationDTO medicationDTO : manifest) {
+            if (!medicationDTO.getName().matches("^[a-zA-Z0-9_-]*$")) {
+                violations.add("name");
+            }
+            if (!medicationDTO.getCode().matches("^[A-Z0-9_]*$")) {
+                violations.add("code");
+            }
+        }
+        Integer weight = manifest.stream()
+                .map(MedicationDTO::getWeight)
+                .reduce(0, Integer::sum);
+        blackhole.consume(violations);
+        blackhole.consume(weight);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITEMS)
+    public List<MedicationViolation> validator() {
+        return medicationValidator.validate(manifest, Integer.MAX_VALUE);
+    }
+}
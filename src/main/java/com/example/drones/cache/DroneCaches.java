@@ -0,0 +1,53 @@
+package com.example.drones.cache;
+
+import com.example.drones.service.MedicationsChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Names of drone read caches and their invalidation. Entries are evicted twice: right before the writing
+ * transaction commits and again after it commits, which drops old rows cached by reads that ran during
+ * the commit. A read that queried the database before the commit but stores its result after the second
+ * eviction still caches old rows, until the drone's next change or the cache's expireAfterWrite.
+ */
+@Component
+@RequiredArgsConstructor
+public class DroneCaches {
+    public static final String MEDICATIONS = "droneMedications";
+    public static final String MEDICATION_SUMMARIES = "droneMedicationSummaries";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Evict cached medications of drone before the change commits
+     *
+     * @param event medications change
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeMedicationsCommitted(MedicationsChangedEvent event) {
+        evict(MEDICATIONS, event.getDroneId());
+        evict(MEDICATION_SUMMARIES, event.getDroneId());
+    }
+
+    /**
+     * Evict cached medications of drone after the change commits
+     *
+     * @param event medications change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicationsChanged(MedicationsChangedEvent event) {
+        evict(MEDICATIONS, event.getDroneId());
+        evict(MEDICATION_SUMMARIES, event.getDroneId());
+    }
+
+    private void evict(String name, Long droneId) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache != null) {
+            cache.evict(droneId);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.drones.controller;
+
+import com.example.drones.dto.DispatchPlanDTO;
+import com.example.drones.dto.DispatchPlanRequestDTO;
+import com.example.drones.service.DispatchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/dispatch")
+@RequiredArgsConstructor
+public class DispatchController {
+    private final DispatchService dispatchService;
+
+    @PostMapping("/plan")
+    public DispatchPlanDTO plan(@RequestBody DispatchPlanRequestDTO request) {
+        return dispatchService.plan(request);
+    }
+}
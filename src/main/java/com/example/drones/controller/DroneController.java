@@ -1,36 +1,103 @@
 package com.example.drones.controller;
 
+import com.example.drones.dto.BatteryReadingDTO;
+import com.example.drones.dto.BatterySampleDTO;
+import com.example.drones.dto.DroneBatchRegisterResultDTO;
 import com.example.drones.dto.DroneDTO;
+import com.example.drones.dto.DronePageDTO;
 import com.example.drones.dto.DroneRegisterDTO;
+import com.example.drones.dto.FleetIndexCheckDTO;
+import com.example.drones.dto.LoadingJobDTO;
+import com.example.drones.dto.LockStripeStatsDTO;
 import com.example.drones.dto.MedicationDTO;
+import com.example.drones.dto.MedicationSummaryDTO;
+import com.example.drones.dto.TelemetryResultDTO;
+import com.example.drones.enums.BatteryResolution;
+import com.example.drones.enums.DroneModel;
+import com.example.drones.enums.DroneState;
 import com.example.drones.service.DroneService;
+import com.example.drones.service.ExportService;
+import com.example.drones.service.FleetStreamService;
+import com.example.drones.service.LoadingJobService;
+import com.example.drones.service.TelemetryService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/drones")
 @RequiredArgsConstructor
 public class DroneController {
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
     private final DroneService droneService;
+    private final LoadingJobService loadingJobService;
+    private final TelemetryService telemetryService;
+    private final FleetStreamService fleetStreamService;
+    private final ExportService exportService;
+    private final ObjectMapper objectMapper;
+
+    @GetMapping
+    public DronePageDTO getDrones(@RequestParam(required = false) DroneState state,
+                                  @RequestParam(required = false) DroneModel model,
+                                  @RequestParam(required = false) Integer minBattery,
+                                  @RequestParam(required = false) Long after,
+                                  @RequestParam(defaultValue = "100") int limit) {
+        return droneService.getDrones(state, model, minBattery, after, limit);
+    }
 
     @PostMapping("/register")
     public DroneDTO registerDrone(@RequestBody DroneRegisterDTO droneRegisterDTO) {
         return droneService.register(droneRegisterDTO);
     }
 
+    @PostMapping(value = "/register/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public DroneBatchRegisterResultDTO registerDrones(@RequestBody List<DroneRegisterDTO> droneRegisterDTOs) {
+        return droneService.registerBatch(droneRegisterDTOs.iterator());
+    }
+
+    @PostMapping(value = "/register/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public DroneBatchRegisterResultDTO registerDronesStream(InputStream body) throws IOException {
+        try (MappingIterator<DroneRegisterDTO> droneRegisterDTOs = objectMapper.readerFor(DroneRegisterDTO.class)
+                .readValues(body)) {
+            return droneService.registerBatch(droneRegisterDTOs);
+        }
+    }
+
     @PostMapping("/medication")
-    public void addMedications(@RequestParam List<MultipartFile> files,
-                               @RequestBody List<MedicationDTO> medicationDTOs) {
-        droneService.addMedication(medicationDTOs, files);
+    public ResponseEntity<LoadingJobDTO> addMedications(@RequestParam List<MultipartFile> files,
+                                                        @RequestBody List<MedicationDTO> medicationDTOs) {
+        LoadingJobDTO job = loadingJobService.submit(medicationDTOs, files);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/jobs/{jobId}")
+                .buildAndExpand(job.getId())
+                .toUri();
+        return ResponseEntity.accepted().location(location).body(job);
     }
 
     @GetMapping("/{droneId}/medications")
@@ -38,13 +105,57 @@ public class DroneController {
         return droneService.getAllDroneMedications(droneId);
     }
 
+    @GetMapping(value = "/{droneId}/medications", params = "fields=summary")
+    public List<MedicationSummaryDTO> getAllDroneMedicationSummaries(@PathVariable("droneId") Long droneId) {
+        return droneService.getAllDroneMedicationSummaries(droneId);
+    }
+
+    @GetMapping("/{droneId}/battery-history")
+    public List<BatterySampleDTO> getBatteryHistory(@PathVariable("droneId") Long droneId,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                    @RequestParam(required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                    @RequestParam(defaultValue = "RAW") BatteryResolution resolution) {
+        return droneService.getBatteryHistory(droneId, from, to, resolution);
+    }
+
     @GetMapping("/available")
     public List<DroneDTO> getAllAvailableDrones() {
         return droneService.getAllAvailableDrones();
     }
 
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public WebAsyncTask<Void> exportFleet(HttpServletResponse response) throws IOException {
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"fleet.ndjson\"");
+        return exportService.exportFleetTask(response.getOutputStream());
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFleetChanges(@RequestParam(required = false) Set<DroneState> state,
+                                         @RequestParam(required = false) Set<DroneModel> model) {
+        return fleetStreamService.subscribe(state, model);
+    }
+
     @GetMapping("/{droneId}/battery-level")
     public Integer getDroneBatteryLevel(@PathVariable("droneId") Long droneId) {
         return droneService.getDroneBatteryLevel(droneId);
     }
+
+    @PostMapping("/telemetry")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TelemetryResultDTO addTelemetry(@RequestBody List<BatteryReadingDTO> readings) {
+        return telemetryService.submit(readings);
+    }
+
+    @GetMapping("/index/check")
+    public FleetIndexCheckDTO checkFleetIndex() {
+        return droneService.checkFleetIndex();
+    }
+
+    @GetMapping("/locks/stats")
+    public List<LockStripeStatsDTO> getLoadingLockStats() {
+        return droneService.getLoadingLockStats();
+    }
 }
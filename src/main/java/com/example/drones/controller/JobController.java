@@ -0,0 +1,21 @@
+package com.example.drones.controller;
+
+import com.example.drones.dto.LoadingJobDTO;
+import com.example.drones.service.LoadingJobService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class JobController {
+    private final LoadingJobService loadingJobService;
+
+    @GetMapping("/{jobId}")
+    public LoadingJobDTO getJob(@PathVariable("jobId") String jobId) {
+        return loadingJobService.getJob(jobId);
+    }
+}
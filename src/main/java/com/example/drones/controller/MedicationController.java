@@ -0,0 +1,50 @@
+package com.example.drones.controller;
+
+import com.example.drones.dto.CatalogImportResultDTO;
+import com.example.drones.enums.CatalogFormat;
+import com.example.drones.service.CatalogImportService;
+import com.example.drones.service.MedicationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/medications")
+@RequiredArgsConstructor
+public class MedicationController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private final MedicationService medicationService;
+    private final CatalogImportService catalogImportService;
+    private final ImageResponseWriter imageResponseWriter;
+
+    @GetMapping("/{medicationId}/image")
+    public void getMedicationImage(@PathVariable("medicationId") Long medicationId,
+                                   HttpServletRequest request,
+                                   HttpServletResponse response) throws IOException {
+        imageResponseWriter.write(medicationService.getMedicationImage(medicationId), request, response);
+    }
+
+    @PostMapping(value = "/catalog", consumes = TEXT_CSV_VALUE)
+    public CatalogImportResultDTO importCatalogCsv(InputStream body) throws IOException {
+        return catalogImportService.importCatalog(new InputStreamReader(body, StandardCharsets.UTF_8),
+                CatalogFormat.CSV);
+    }
+
+    @PostMapping(value = "/catalog", consumes = APPLICATION_NDJSON_VALUE)
+    public CatalogImportResultDTO importCatalogStream(InputStream body) throws IOException {
+        return catalogImportService.importCatalog(new InputStreamReader(body, StandardCharsets.UTF_8),
+                CatalogFormat.NDJSON);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.drones.dispatch;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+
+/**
+ * First-fit-decreasing packing of medications to drones: medications are taken heaviest first
+ * and each one goes to the first drone (in preference order) with enough capacity left.
+ * Costs O(n log n + n * m) for n medications and m drones, without allocations per medication.
+ */
+@Component
+public class DispatchPlanner {
+    public static final int UNASSIGNED = -1;
+
+    /**
+     * Assign medications to drones
+     *
+     * @param capacities weight capacity of drones, in preference order
+     * @param weights    weights of medications, not negative
+     * @return drone index for every medication, {@link #UNASSIGNED} if medication fits no drone
+     */
+    public int[] plan(int[] capacities, int[] weights) {
+        int[] remaining = capacities.clone();
+        int[] assignments = new int[weights.length];
+        // weight in high bits and reversed index in low bits: sorted ascending, read from the end,
+        // medications come heaviest first and in request order for equal weights
+        long[] order = new long[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            order[i] = ((long) weights[i] << Integer.SIZE) | (Integer.MAX_VALUE - i);
+        }
+        Arrays.sort(order);
+        for (int k = order.length - 1; k >= 0; k--) {
+            int medication = Integer.MAX_VALUE - (int) order[k];
+            int weight = weights[medication];
+            assignments[medication] = UNASSIGNED;
+            for (int drone = 0; drone < remaining.length; drone++) {
+                if (remaining[drone] >= weight) {
+                    remaining[drone] -= weight;
+                    assignments[medication] = drone;
+                    break;
+                }
+            }
+        }
+        return assignments;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.drones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatteryReadingDTO {
+    private Long droneId;
+    private int battery;
+    private LocalDateTime timestamp;
+}
@@ -0,0 +1,18 @@
+package com.example.drones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatterySampleDTO {
+    private LocalDateTime sampledAt;
+    private int batteryLevel;
+    private int minLevel;
+    private int maxLevel;
+    private int samples;
+}
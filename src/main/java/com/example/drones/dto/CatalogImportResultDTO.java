@@ -0,0 +1,12 @@
+package com.example.drones.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CatalogImportResultDTO {
+    private int imported;
+    private List<CatalogImportErrorDTO> rejected = new ArrayList<>();
+}
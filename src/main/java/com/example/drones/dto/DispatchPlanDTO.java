@@ -0,0 +1,12 @@
+package com.example.drones.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class DispatchPlanDTO {
+    private List<DroneAssignmentDTO> assignments = new ArrayList<>();
+    private List<UnassignedMedicationDTO> unassigned = new ArrayList<>();
+}
@@ -0,0 +1,20 @@
+package com.example.drones.dto;
+
+import com.example.drones.enums.DroneModel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DispatchPlanRequestDTO {
+    private List<MedicationDTO> medications = new ArrayList<>();
+    /**
+     * Drones of this model are filled first, optional
+     */
+    private DroneModel preferredModel;
+}
@@ -0,0 +1,23 @@
+package com.example.drones.dto;
+
+import com.example.drones.enums.DroneModel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DroneAssignmentDTO {
+    private Long droneId;
+    private String serialNumber;
+    private DroneModel droneModel;
+    private int batteryCapacity;
+    private int weightLimit;
+    private int weight;
+    private List<MedicationDTO> medications;
+}
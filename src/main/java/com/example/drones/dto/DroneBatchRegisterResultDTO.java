@@ -0,0 +1,12 @@
+package com.example.drones.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class DroneBatchRegisterResultDTO {
+    private List<DroneDTO> registered = new ArrayList<>();
+    private List<DroneRegisterErrorDTO> failed = new ArrayList<>();
+}
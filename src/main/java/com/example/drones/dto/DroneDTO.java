@@ -15,6 +15,7 @@ public class DroneDTO extends AbstractBaseDTO {
     private String serialNumber;
     private DroneModel droneModel;
     private int weightLimit;
+    private int loadedWeight;
     private int batteryCapacity;
     private DroneState droneState;
     private List<MedicationDTO> medications = new ArrayList<>();
@@ -0,0 +1,26 @@
+package com.example.drones.dto;
+
+import com.example.drones.enums.DroneEventType;
+import com.example.drones.enums.DroneModel;
+import com.example.drones.enums.DroneState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DroneEventDTO {
+    private DroneEventType type;
+    private Long droneId;
+    private String serialNumber;
+    private DroneModel droneModel;
+    private DroneState droneState;
+    private DroneState previousState;
+    private int batteryCapacity;
+    private LocalDateTime timestamp;
+}
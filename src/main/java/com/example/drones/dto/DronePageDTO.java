@@ -0,0 +1,21 @@
+package com.example.drones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page of drones ordered by id, next page is requested with {@code after} set to {@code next}
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DronePageDTO {
+    private List<DroneSummaryDTO> drones;
+    /**
+     * Id of the last drone of the page or null if it's the last page
+     */
+    private Long next;
+}
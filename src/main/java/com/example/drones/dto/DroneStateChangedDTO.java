@@ -0,0 +1,19 @@
+package com.example.drones.dto;
+
+import com.example.drones.enums.DroneState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outbox payload of drone state transition
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DroneStateChangedDTO {
+    private Long droneId;
+    private DroneState from;
+    private DroneState to;
+    private int batteryCapacity;
+}
@@ -0,0 +1,23 @@
+package com.example.drones.dto;
+
+import com.example.drones.enums.DroneModel;
+import com.example.drones.enums.DroneState;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Drone without medications and audit fields, for listings
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DroneSummaryDTO {
+    private Long id;
+    private String serialNumber;
+    private DroneModel droneModel;
+    private int weightLimit;
+    private int batteryCapacity;
+    private DroneState droneState;
+    private int loadedWeight;
+}
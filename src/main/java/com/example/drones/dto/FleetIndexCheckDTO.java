@@ -0,0 +1,18 @@
+package com.example.drones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetIndexCheckDTO {
+    private boolean consistent;
+    private int indexed;
+    private int persisted;
+    private List<Long> mismatchedDroneIds = new ArrayList<>();
+}
@@ -0,0 +1,23 @@
+package com.example.drones.dto;
+
+import com.example.drones.enums.LoadingJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LoadingJobDTO {
+    private String id;
+    private Long droneId;
+    private int medicationsCount;
+    private LoadingJobStatus status;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
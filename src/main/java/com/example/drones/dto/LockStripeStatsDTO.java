@@ -0,0 +1,16 @@
+package com.example.drones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LockStripeStatsDTO {
+    private int stripe;
+    private long acquisitions;
+    private int queueLength;
+    private long totalWaitMicros;
+    private long maxWaitMicros;
+}
@@ -16,6 +16,6 @@ public class MedicationDTO extends AbstractBaseDTO {
     private String name;
     private int weight;
     private String code;
-    private byte[] image;
+    private String imageHash;
     private Long droneId;
 }
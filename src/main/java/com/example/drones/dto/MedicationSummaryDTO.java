@@ -0,0 +1,19 @@
+package com.example.drones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Medication without image reference and audit fields, for listings
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MedicationSummaryDTO {
+    private Long id;
+    private String name;
+    private int weight;
+    private String code;
+    private Long droneId;
+}
@@ -0,0 +1,19 @@
+package com.example.drones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outbox payload of medications loaded to drone
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MedicationsLoadedDTO {
+    private Long droneId;
+    private int loadedWeight;
+    private List<MedicationSummaryDTO> medications;
+}
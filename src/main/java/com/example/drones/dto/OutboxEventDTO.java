@@ -0,0 +1,21 @@
+package com.example.drones.dto;
+
+import com.example.drones.enums.OutboxEventType;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEventDTO {
+    private Long id;
+    private Long droneId;
+    private OutboxEventType eventType;
+    @JsonRawValue
+    private String payload;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package com.example.drones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetryErrorDTO {
+    private int index;
+    private Long droneId;
+    private String message;
+}
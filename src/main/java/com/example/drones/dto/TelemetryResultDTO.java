@@ -0,0 +1,12 @@
+package com.example.drones.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class TelemetryResultDTO {
+    private int accepted;
+    private List<TelemetryErrorDTO> rejected = new ArrayList<>();
+}
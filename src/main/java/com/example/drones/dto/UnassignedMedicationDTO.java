@@ -0,0 +1,14 @@
+package com.example.drones.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UnassignedMedicationDTO {
+    private int index;
+    private String name;
+    private String message;
+}
@@ -0,0 +1,7 @@
+package com.example.drones.enums;
+
+public enum BatteryResolution {
+    RAW,
+    MINUTE,
+    HOUR
+}
@@ -0,0 +1,6 @@
+package com.example.drones.enums;
+
+public enum DroneEventType {
+    STATE,
+    BATTERY
+}
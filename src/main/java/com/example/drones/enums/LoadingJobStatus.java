@@ -0,0 +1,10 @@
+package com.example.drones.enums;
+
+public enum LoadingJobStatus {
+    QUEUED,
+    VALIDATING,
+    PARSING,
+    LOADING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,9 @@
+package com.example.drones.enums;
+
+public enum LoadingRejectionReason {
+    LOW_BATTERY,
+    OVERWEIGHT,
+    INVALID_MEDICATION,
+    WRONG_STATE,
+    BUSY
+}
@@ -0,0 +1,6 @@
+package com.example.drones.enums;
+
+public enum OutboxEventType {
+    STATE_CHANGED,
+    MEDICATIONS_LOADED
+}
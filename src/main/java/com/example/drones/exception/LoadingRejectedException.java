@@ -0,0 +1,19 @@
+package com.example.drones.exception;
+
+import com.example.drones.enums.LoadingRejectionReason;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class LoadingRejectedException extends RestException {
+    private final LoadingRejectionReason reason;
+
+    public LoadingRejectedException(LoadingRejectionReason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public LoadingRejectionReason getReason() {
+        return reason;
+    }
+}
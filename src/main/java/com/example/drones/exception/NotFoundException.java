@@ -0,0 +1,11 @@
+package com.example.drones.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class NotFoundException extends RestException {
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
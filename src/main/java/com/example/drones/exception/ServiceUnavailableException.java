@@ -0,0 +1,11 @@
+package com.example.drones.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RestException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.drones.index;
+
+import com.example.drones.enums.DroneModel;
+import com.example.drones.enums.DroneState;
+import com.example.drones.model.Drone;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Immutable drone state kept in fleet index, without medications
+ */
+@Value
+public class DroneSnapshot {
+    Long id;
+    String serialNumber;
+    DroneModel droneModel;
+    int weightLimit;
+    @With
+    int loadedWeight;
+    @With
+    int batteryCapacity;
+    @With
+    DroneState droneState;
+
+    public static DroneSnapshot of(Drone drone) {
+        return new DroneSnapshot(drone.getId(), drone.getSerialNumber(), drone.getDroneModel(),
+                drone.getWeightLimit(), drone.getLoadedWeight(), drone.getBatteryCapacity(), drone.getDroneState());
+    }
+}
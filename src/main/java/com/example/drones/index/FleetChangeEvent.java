@@ -0,0 +1,15 @@
+package com.example.drones.index;
+
+import lombok.Value;
+
+/**
+ * Change of indexed drone, published after fleet index is updated
+ */
+@Value
+public class FleetChangeEvent {
+    /**
+     * Drone state before change, null for newly indexed drone
+     */
+    DroneSnapshot previous;
+    DroneSnapshot current;
+}
@@ -0,0 +1,256 @@
+package com.example.drones.index;
+
+import com.example.drones.dto.FleetIndexCheckDTO;
+import com.example.drones.enums.DroneState;
+import com.example.drones.repository.DroneRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Write-through in-memory index of drones. Drones are bucketed by state and battery level
+ * (array index is battery percentage), so availability lookup costs O(result) and doesn't hit database.
+ * Index is built from repository on startup and updated by every drone write,
+ * every change of indexed drone is published as {@link FleetChangeEvent}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FleetIndex {
+    private static final int MAX_BATTERY_LEVEL = 100;
+
+    private final DroneRepository droneRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Index index = new Index();
+
+    /**
+     * Rebuild index from repository
+     */
+    @PostConstruct
+    public void rebuild() {
+        Index rebuilt = new Index();
+        droneRepository.findAllSnapshots().forEach(rebuilt::put);
+        index = rebuilt;
+        log.info("Fleet index built with " + rebuilt.drones.size() + " drones");
+    }
+
+    /**
+     * Put drone state to index
+     *
+     * @param snapshot drone state
+     */
+    public void update(DroneSnapshot snapshot) {
+        Index current = index;
+        current.drones.compute(snapshot.getId(),
+                (droneId, previous) -> publish(previous, current.move(droneId, previous, snapshot)));
+    }
+
+    /**
+     * Change indexed drone state, concurrent changes of the same drone are applied one by one
+     *
+     * @param droneId drone id
+     * @param change  change of drone state, isn't applied if drone isn't indexed
+     */
+    public void update(Long droneId, UnaryOperator<DroneSnapshot> change) {
+        Index current = index;
+        current.drones.computeIfPresent(droneId,
+                (id, previous) -> publish(previous, current.move(id, previous, change.apply(previous))));
+    }
+
+    /**
+     * Get drone state from index
+     *
+     * @param droneId drone id
+     * @return drone state or null if drone isn't indexed
+     */
+    public DroneSnapshot get(Long droneId) {
+        return index.drones.get(droneId);
+    }
+
+    /**
+     * Find indexed drones matching filter
+     *
+     * @param filter drone filter
+     * @return drones in no particular order
+     */
+    public List<DroneSnapshot> findAll(Predicate<DroneSnapshot> filter) {
+        List<DroneSnapshot> found = new ArrayList<>();
+        for (DroneSnapshot snapshot : index.drones.values()) {
+            if (filter.test(snapshot)) {
+                found.add(snapshot);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Find indexed drones matching filter. Every drone is read under its entry lock, so a change of the drone
+     * being published at the moment is stored before the drone is read: the result includes every change
+     * already published to listeners.
+     *
+     * @param filter drone filter
+     * @return drones in no particular order
+     */
+    public List<DroneSnapshot> findAllPublished(Predicate<DroneSnapshot> filter) {
+        ConcurrentHashMap<Long, DroneSnapshot> drones = index.drones;
+        List<DroneSnapshot> found = new ArrayList<>();
+        for (Long droneId : drones.keySet()) {
+            // no-op remapping waits for compute of the same drone in progress
+            DroneSnapshot snapshot = drones.computeIfPresent(droneId, (id, current) -> current);
+            if (snapshot != null && filter.test(snapshot)) {
+                found.add(snapshot);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Find IDLE drones with battery level more than given, highest battery first
+     *
+     * @param minBatteryLevel battery level (exclusive)
+     * @return available drones
+     */
+    public List<DroneSnapshot> findAvailable(int minBatteryLevel) {
+        Index current = index;
+        Set<Long>[] idle = current.buckets.get(DroneState.IDLE);
+        List<DroneSnapshot> available = new ArrayList<>();
+        for (int level = MAX_BATTERY_LEVEL; level > Math.max(minBatteryLevel, -1); level--) {
+            for (Long droneId : idle[level]) {
+                DroneSnapshot snapshot = current.drones.get(droneId);
+                // bucket may briefly lag behind concurrent update of the same drone
+                if (snapshot != null && snapshot.getDroneState() == DroneState.IDLE
+                        && snapshot.getBatteryCapacity() == level) {
+                    available.add(snapshot);
+                }
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Count drones in state
+     *
+     * @param droneState drone state
+     * @return number of drones
+     */
+    public int count(DroneState droneState) {
+        int count = 0;
+        for (Set<Long> bucket : index.buckets.get(droneState)) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    /**
+     * Count drones in any state with battery level in range
+     *
+     * @param minBatteryLevel battery level (inclusive)
+     * @param maxBatteryLevel battery level (inclusive)
+     * @return number of drones
+     */
+    public int countByBattery(int minBatteryLevel, int maxBatteryLevel) {
+        int from = Math.max(0, minBatteryLevel);
+        int to = Math.min(MAX_BATTERY_LEVEL, maxBatteryLevel);
+        int count = 0;
+        for (Set<Long>[] levels : index.buckets.values()) {
+            for (int level = from; level <= to; level++) {
+                count += levels[level].size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Compare index with database
+     *
+     * @return check result
+     */
+    public FleetIndexCheckDTO check() {
+        Map<Long, DroneSnapshot> indexed = new HashMap<>(index.drones);
+        List<Long> mismatched = new ArrayList<>();
+        int persisted = 0;
+        for (DroneSnapshot snapshot : droneRepository.findAllSnapshots()) {
+            persisted++;
+            if (!snapshot.equals(indexed.remove(snapshot.getId()))) {
+                mismatched.add(snapshot.getId());
+            }
+        }
+        mismatched.addAll(indexed.keySet());
+        if (!mismatched.isEmpty()) {
+            log.warn("Fleet index is inconsistent with database for drones: " + mismatched);
+        }
+        return new FleetIndexCheckDTO(mismatched.isEmpty(), index.drones.size(), persisted, mismatched);
+    }
+
+    /**
+     * Publish change while the drone's entry is locked, so changes of one drone are published in order.
+     * Listeners run under the lock and must be short and must not update the index.
+     */
+    private DroneSnapshot publish(DroneSnapshot previous, DroneSnapshot current) {
+        if (!Objects.equals(previous, current)) {
+            eventPublisher.publishEvent(new FleetChangeEvent(previous, current));
+        }
+        return current;
+    }
+
+    /**
+     * Drones by id plus state/battery buckets of drone ids
+     */
+    private static final class Index {
+        private final ConcurrentHashMap<Long, DroneSnapshot> drones = new ConcurrentHashMap<>();
+        private final Map<DroneState, Set<Long>[]> buckets = new EnumMap<>(DroneState.class);
+
+        @SuppressWarnings("unchecked")
+        private Index() {
+            for (DroneState droneState : DroneState.values()) {
+                Set<Long>[] levels = new Set[MAX_BATTERY_LEVEL + 1];
+                for (int level = 0; level <= MAX_BATTERY_LEVEL; level++) {
+                    levels[level] = ConcurrentHashMap.newKeySet();
+                }
+                buckets.put(droneState, levels);
+            }
+        }
+
+        private void put(DroneSnapshot snapshot) {
+            drones.compute(snapshot.getId(), (droneId, previous) -> move(droneId, previous, snapshot));
+        }
+
+        /**
+         * Move drone between buckets, called inside compute of the drone's entry: compute locks only
+         * this drone's bin, so updates of different drones don't contend
+         */
+        private DroneSnapshot move(Long droneId, DroneSnapshot previous, DroneSnapshot snapshot) {
+            Set<Long> from = previous == null ? null : bucket(previous);
+            Set<Long> to = bucket(snapshot);
+            if (from != null && from != to) {
+                from.remove(droneId);
+            }
+            if (to != null) {
+                to.add(droneId);
+            }
+            return snapshot;
+        }
+
+        private Set<Long> bucket(DroneSnapshot snapshot) {
+            if (snapshot.getDroneState() == null) {
+                return null;
+            }
+            int level = Math.max(0, Math.min(MAX_BATTERY_LEVEL, snapshot.getBatteryCapacity()));
+            return buckets.get(snapshot.getDroneState())[level];
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.example.drones.lifecycle;
+
+import com.example.drones.dto.DroneStateChangedDTO;
+import com.example.drones.enums.DroneState;
+import com.example.drones.index.DroneSnapshot;
+import com.example.drones.index.FleetChangeEvent;
+import com.example.drones.index.FleetIndex;
+import com.example.drones.metrics.DroneMetrics;
+import com.example.drones.service.BatteryHistoryService;
+import com.example.drones.service.MedicationsChangedEvent;
+import com.example.drones.service.OutboxService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Delivery lifecycle of drones: LOADED -> DELIVERING -> DELIVERED -> RETURNING -> IDLE, every leg takes
+ * configured time. Pending legs are timers of a hierarchical timing wheel advanced by one thread,
+ * so a leg costs O(1) however many drones are in flight and the drones table is never scanned.
+ * Legs due in one tick are persisted in one transaction by JDBC batches, battery is drained by every flight
+ * (DELIVERING and RETURNING legs), medications are unloaded on delivery. Transitions are written to outbox.
+ * Drones entering lifecycle states are picked up from fleet index changes.
+ */
+@Slf4j
+@Component
+public class LifecycleEngine {
+    private static final int BATCH_SIZE = 50;
+    private static final long RETRY_DELAY_MS = 1000;
+    private static final String UPDATE_STATE = "update drones set drone_state = ?, battery_capacity = ?, "
+            + "loaded_weight = case when ? then 0 else loaded_weight end, updated_at = ?, version = version + 1 "
+            + "where id = ? and drone_state = ?";
+    private static final String UNLOAD_MEDICATIONS = "update medications set drone_id = null where drone_id = ?";
+    private static final Map<DroneState, DroneState> NEXT_STATES = new EnumMap<>(Map.of(
+            DroneState.LOADED, DroneState.DELIVERING,
+            DroneState.DELIVERING, DroneState.DELIVERED,
+            DroneState.DELIVERED, DroneState.RETURNING,
+            DroneState.RETURNING, DroneState.IDLE));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FleetIndex fleetIndex;
+    private final DroneMetrics droneMetrics;
+    private final BatteryHistoryService batteryHistoryService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final long tickMs;
+    private final Map<DroneState, Duration> legDurations;
+    private final int batteryDrain;
+    private final LongSupplier clock;
+    private final TimingWheel<Leg> wheel;
+    /**
+     * Drones entered or left lifecycle states, drained by the ticker thread
+     */
+    private final Queue<Leg> inbox = new ConcurrentLinkedQueue<>();
+    /**
+     * Current leg of every drone in lifecycle, timers of replaced legs are ignored on expiration
+     */
+    private final Map<Long, Leg> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService ticker;
+
+    @Autowired
+    public LifecycleEngine(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           FleetIndex fleetIndex,
+                           DroneMetrics droneMetrics,
+                           BatteryHistoryService batteryHistoryService,
+                           OutboxService outboxService,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${drones.lifecycle.enabled:true}") boolean enabled,
+                           @Value("${drones.lifecycle.tick-ms:100}") long tickMs,
+                           @Value("${drones.lifecycle.leg.loaded:5s}") Duration loaded,
+                           @Value("${drones.lifecycle.leg.delivering:30s}") Duration delivering,
+                           @Value("${drones.lifecycle.leg.delivered:5s}") Duration delivered,
+                           @Value("${drones.lifecycle.leg.returning:30s}") Duration returning,
+                           @Value("${drones.lifecycle.battery-drain:10}") int batteryDrain) {
+        this(jdbcTemplate, transactionTemplate, fleetIndex, droneMetrics, batteryHistoryService, outboxService,
+                eventPublisher, enabled, tickMs, legDurations(loaded, delivering, delivered, returning), batteryDrain,
+                System::currentTimeMillis);
+    }
+
+    LifecycleEngine(JdbcTemplate jdbcTemplate,
+                    TransactionTemplate transactionTemplate,
+                    FleetIndex fleetIndex,
+                    DroneMetrics droneMetrics,
+                    BatteryHistoryService batteryHistoryService,
+                    OutboxService outboxService,
+                    ApplicationEventPublisher eventPublisher,
+                    boolean enabled,
+                    long tickMs,
+                    Map<DroneState, Duration> legDurations,
+                    int batteryDrain,
+                    LongSupplier clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.fleetIndex = fleetIndex;
+        this.droneMetrics = droneMetrics;
+        this.batteryHistoryService = batteryHistoryService;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.tickMs = tickMs;
+        this.legDurations = legDurations;
+        this.batteryDrain = batteryDrain;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(tickMs, clock.getAsLong());
+    }
+
+    /**
+     * Pick up drones already in flight and start the ticker
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Delivery lifecycle is disabled");
+            return;
+        }
+        resume();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> new Thread(runnable, "drone-lifecycle"));
+        ticker.scheduleAtFixedRate(() -> tick(clock.getAsLong()), tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ticker != null) {
+            ticker.shutdown();
+        }
+    }
+
+    /**
+     * Queue drone which entered or left lifecycle state. Runs under fleet index lock of the drone,
+     * so it only queues the change for the ticker thread.
+     *
+     * @param event fleet change
+     */
+    @EventListener
+    public void onFleetChange(FleetChangeEvent event) {
+        DroneState previous = event.getPrevious() == null ? null : event.getPrevious().getDroneState();
+        DroneState current = event.getCurrent().getDroneState();
+        if (enabled && previous != current && (isInLifecycle(previous) || isInLifecycle(current))) {
+            inbox.add(new Leg(event.getCurrent().getId(), current));
+        }
+    }
+
+    /**
+     * Number of drones with pending lifecycle legs
+     *
+     * @return pending legs
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Queue legs of drones in lifecycle states of fleet index
+     */
+    void resume() {
+        List<DroneSnapshot> inFlight = fleetIndex.findAll(snapshot -> isInLifecycle(snapshot.getDroneState()));
+        inFlight.forEach(snapshot -> inbox.add(new Leg(snapshot.getId(), snapshot.getDroneState())));
+        log.info("Delivery lifecycle resumed for " + inFlight.size() + " drones");
+    }
+
+    /**
+     * Schedule queued legs, then advance timing wheel and transit drones with due legs
+     *
+     * @param now current time, epoch millis
+     */
+    void tick(long now) {
+        try {
+            for (Leg leg = inbox.poll(); leg != null; leg = inbox.poll()) {
+                schedule(leg, now);
+            }
+            List<Leg> due = new ArrayList<>();
+            wheel.advance(now, leg -> {
+                if (pending.get(leg.droneId) == leg) {
+                    due.add(leg);
+                }
+            });
+            if (!due.isEmpty()) {
+                transit(due, now);
+            }
+        } catch (RuntimeException e) {
+            log.error("Delivery lifecycle tick failed", e);
+        }
+    }
+
+    private void schedule(Leg leg, long now) {
+        if (!isInLifecycle(leg.droneState)) {
+            pending.remove(leg.droneId);
+            return;
+        }
+        Leg scheduled = pending.get(leg.droneId);
+        if (scheduled != null && scheduled.droneState == leg.droneState) {
+            // already scheduled, e.g. by own transition
+            return;
+        }
+        pending.put(leg.droneId, leg);
+        wheel.schedule(leg, now + legDurations.get(leg.droneState).toMillis());
+    }
+
+    private void transit(List<Leg> due, long now) {
+        List<Transition> transitions = new ArrayList<>(due.size());
+        for (Leg leg : due) {
+            DroneSnapshot snapshot = fleetIndex.get(leg.droneId);
+            if (snapshot == null || snapshot.getDroneState() != leg.droneState) {
+                pending.remove(leg.droneId, leg);
+                continue;
+            }
+            DroneState to = NEXT_STATES.get(leg.droneState);
+            int battery = isFlight(leg.droneState)
+                    ? Math.max(0, snapshot.getBatteryCapacity() - batteryDrain)
+                    : snapshot.getBatteryCapacity();
+            transitions.add(new Transition(leg, to, battery));
+        }
+        // database keeps microseconds, so history sample and persisted change time are equal
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        List<Transition> done;
+        try {
+            done = transactionTemplate.execute(status -> persist(transitions, updatedAt));
+        } catch (RuntimeException e) {
+            // not only DataAccessException: transaction begin/commit and outbox serialization failures too,
+            // due legs are already taken from the wheel and would be stuck in pending otherwise
+            log.error("Can't persist " + transitions.size() + " drone transitions, retry later", e);
+            transitions.forEach(transition -> wheel.schedule(transition.leg, now + RETRY_DELAY_MS));
+            return;
+        }
+        for (Transition transition : transitions) {
+            pending.remove(transition.leg.droneId, transition.leg);
+        }
+        for (Transition transition : done) {
+            Long droneId = transition.leg.droneId;
+            fleetIndex.update(droneId, snapshot -> snapshot
+                    .withDroneState(transition.to)
+                    .withBatteryCapacity(transition.battery)
+                    .withLoadedWeight(transition.to == DroneState.DELIVERED ? 0 : snapshot.getLoadedWeight()));
+            droneMetrics.transition(transition.leg.droneState, transition.to);
+            batteryHistoryService.record(droneId, transition.battery, updatedAt);
+            schedule(new Leg(droneId, transition.to), now);
+        }
+        log.debug("Drones transited: " + done.size() + " of " + transitions.size() + " due");
+    }
+
+    /**
+     * Update states of drones still in expected state (delivered ones are unloaded by the same versioned update),
+     * detach medications of delivered drones, write transitions to outbox
+     *
+     * @return persisted transitions
+     */
+    private List<Transition> persist(List<Transition> transitions, LocalDateTime updatedAt) {
+        Timestamp timestamp = Timestamp.valueOf(updatedAt);
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_STATE, transitions, BATCH_SIZE, (ps, transition) -> {
+            ps.setString(1, transition.to.name());
+            ps.setInt(2, transition.battery);
+            ps.setBoolean(3, transition.to == DroneState.DELIVERED);
+            ps.setTimestamp(4, timestamp);
+            ps.setLong(5, transition.leg.droneId);
+            ps.setString(6, transition.leg.droneState.name());
+        });
+        List<Transition> done = new ArrayList<>(transitions.size());
+        List<Long> delivered = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                Transition transition = transitions.get(index++);
+                if (count == 0) {
+                    log.debug("Drone with id: " + transition.leg.droneId + " left state " + transition.leg.droneState);
+                    continue;
+                }
+                done.add(transition);
+                if (transition.to == DroneState.DELIVERED) {
+                    delivered.add(transition.leg.droneId);
+                }
+            }
+        }
+        if (!done.isEmpty()) {
+            outboxService.statesChanged(done.stream()
+                    .map(transition -> new DroneStateChangedDTO(transition.leg.droneId, transition.leg.droneState,
+                            transition.to, transition.battery))
+                    .collect(Collectors.toList()));
+        }
+        if (!delivered.isEmpty()) {
+            jdbcTemplate.batchUpdate(UNLOAD_MEDICATIONS, delivered, BATCH_SIZE,
+                    (ps, droneId) -> ps.setLong(1, droneId));
+            delivered.forEach(droneId -> eventPublisher.publishEvent(new MedicationsChangedEvent(droneId)));
+        }
+        return done;
+    }
+
+    private static boolean isInLifecycle(DroneState droneState) {
+        return droneState != null && NEXT_STATES.containsKey(droneState);
+    }
+
+    private static boolean isFlight(DroneState droneState) {
+        return droneState == DroneState.DELIVERING || droneState == DroneState.RETURNING;
+    }
+
+    private static Map<DroneState, Duration> legDurations(Duration loaded, Duration delivering,
+                                                          Duration delivered, Duration returning) {
+        Map<DroneState, Duration> durations = new EnumMap<>(DroneState.class);
+        durations.put(DroneState.LOADED, loaded);
+        durations.put(DroneState.DELIVERING, delivering);
+        durations.put(DroneState.DELIVERED, delivered);
+        durations.put(DroneState.RETURNING, returning);
+        return durations;
+    }
+
+    /**
+     * Drone staying in state, compared by identity
+     */
+    private static final class Leg {
+        private final Long droneId;
+        private final DroneState droneState;
+
+        private Leg(Long droneId, DroneState droneState) {
+            this.droneId = droneId;
+            this.droneState = droneState;
+        }
+    }
+
+    private static final class Transition {
+        private final Leg leg;
+        private final DroneState to;
+        private final int battery;
+
+        private Transition(Leg leg, DroneState to, int battery) {
+            this.leg = leg;
+            this.to = to;
+            this.battery = battery;
+        }
+    }
+}
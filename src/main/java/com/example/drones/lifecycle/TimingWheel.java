@@ -0,0 +1,114 @@
+package com.example.drones.lifecycle;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel: {@value #LEVELS} wheels of {@value #SLOTS} slots, a slot of level N spans
+ * {@value #SLOTS}^N ticks. Scheduling puts a timer to one slot and each tick expires one slot of level 0,
+ * timers of higher levels are cascaded down once per level, so a timer costs O(1) however many are pending.
+ * Timers further than the wheels span are parked in the last slot of the top level and cascaded again.
+ * Not thread-safe, it's driven by one thread.
+ *
+ * @param <T> timer payload
+ */
+class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMs;
+    private final long startMs;
+    private final Deque<Timer<T>>[][] wheels;
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickMs, long startMs) {
+        this.tickMs = tickMs;
+        this.startMs = startMs;
+        this.wheels = new Deque[LEVELS][SLOTS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                wheels[level][slot] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    /**
+     * Schedule timer, timer in the past expires on the next tick
+     *
+     * @param payload    timer payload
+     * @param deadlineMs expiration time, epoch millis
+     */
+    void schedule(T payload, long deadlineMs) {
+        long deadlineTick = Math.floorDiv(deadlineMs - startMs + tickMs - 1, tickMs);
+        place(new Timer<>(payload, Math.max(deadlineTick, currentTick + 1)));
+        size++;
+    }
+
+    /**
+     * Advance wheels to the given time
+     *
+     * @param nowMs   current time, epoch millis
+     * @param expired consumer of expired timers payloads, in expiration order
+     */
+    void advance(long nowMs, Consumer<T> expired) {
+        long targetTick = Math.floorDiv(nowMs - startMs, tickMs);
+        while (currentTick < targetTick) {
+            currentTick++;
+            for (int level = 1; level < LEVELS && (currentTick & ((1L << (SLOT_BITS * level)) - 1)) == 0; level++) {
+                cascade(level);
+            }
+            Deque<Timer<T>> slot = wheels[0][(int) (currentTick & SLOT_MASK)];
+            for (Timer<T> timer = slot.poll(); timer != null; timer = slot.poll()) {
+                if (timer.tick > currentTick) {
+                    // parked timer beyond the wheels span
+                    place(timer);
+                    continue;
+                }
+                size--;
+                expired.accept(timer.payload);
+            }
+        }
+    }
+
+    /**
+     * Number of pending timers
+     *
+     * @return pending timers
+     */
+    int size() {
+        return size;
+    }
+
+    private void cascade(int level) {
+        Deque<Timer<T>> slot = wheels[level][(int) ((currentTick >>> (SLOT_BITS * level)) & SLOT_MASK)];
+        Deque<Timer<T>> cascaded = new ArrayDeque<>(slot);
+        slot.clear();
+        cascaded.forEach(this::place);
+    }
+
+    private void place(Timer<T> timer) {
+        long tick = Math.min(timer.tick, currentTick + MAX_DELAY_TICKS);
+        long delay = tick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+        wheels[level][(int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK)].add(timer);
+    }
+
+    private static final class Timer<T> {
+        private final T payload;
+        private final long tick;
+
+        private Timer(T payload, long tick) {
+            this.payload = payload;
+            this.tick = tick;
+        }
+    }
+}
@@ -2,18 +2,29 @@ package com.example.drones.mapping;
 
 import com.example.drones.dto.DroneDTO;
 import com.example.drones.dto.DroneRegisterDTO;
+import com.example.drones.index.DroneSnapshot;
 import com.example.drones.model.Drone;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 import java.util.List;
 
 @Mapper(uses = MedicationMapper.class)
 public interface DroneMapper {
+    @Mapping(target = "loadedWeight", ignore = true)
     Drone toEntity(DroneDTO dto);
 
     DroneDTO toDTO(Drone entity);
 
     List<DroneDTO> toDTOs(List<Drone> entities);
 
+    @Mapping(target = "loadedWeight", ignore = true)
     Drone toEntity(DroneRegisterDTO entity);
+
+    @Mapping(target = "medications", ignore = true)
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    DroneDTO snapshotToDTO(DroneSnapshot snapshot);
+
+    List<DroneDTO> snapshotsToDTOs(List<DroneSnapshot> snapshots);
 }
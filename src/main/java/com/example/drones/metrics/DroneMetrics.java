@@ -0,0 +1,77 @@
+package com.example.drones.metrics;
+
+import com.example.drones.enums.DroneState;
+import com.example.drones.enums.LoadingRejectionReason;
+import com.example.drones.exception.RestException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Drone loading metrics: state transitions, loading latency by outcome and rejections by reason
+ */
+@Component
+@RequiredArgsConstructor
+public class DroneMetrics {
+    public static final String TRANSITIONS = "drones.transitions";
+    public static final String LOADING = "drones.loading";
+    public static final String REJECTIONS = "drones.loading.rejections";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Count drone state transition
+     *
+     * @param from previous state
+     * @param to   new state
+     */
+    public void transition(DroneState from, DroneState to) {
+        Counter.builder(TRANSITIONS)
+                .description("Drone state transitions")
+                .tag("from", String.valueOf(from))
+                .tag("to", String.valueOf(to))
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Count rejected loading
+     *
+     * @param reason rejection reason
+     */
+    public void rejected(LoadingRejectionReason reason) {
+        Counter.builder(REJECTIONS)
+                .description("Rejected loadings of drones")
+                .tag("reason", reason.name())
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Time loading of drone, outcome is "loaded", "rejected" (client error) or "failed"
+     *
+     * @param loading loading action
+     * @return action result
+     */
+    public <T> T timeLoading(Supplier<T> loading) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            T result = loading.get();
+            outcome = "loaded";
+            return result;
+        } catch (RestException e) {
+            outcome = "rejected";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(LOADING)
+                    .description("Loading of drones with medications")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.drones.metrics;
+
+import com.example.drones.enums.DroneState;
+import com.example.drones.index.FleetIndex;
+import com.example.drones.service.DroneLockManager;
+import com.example.drones.service.FleetStreamService;
+import com.example.drones.service.TelemetryService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fleet gauges read from memory (no database queries on scrape): drones per state,
+ * drones per battery level range, buffered telemetry, threads waiting for loading locks, fleet stream subscribers
+ */
+@Component
+@RequiredArgsConstructor
+public class FleetMetrics implements MeterBinder {
+    static final int[] BATTERY_BUCKETS = {0, 25, 50, 75, 101};
+
+    private final FleetIndex fleetIndex;
+    private final DroneLockManager droneLockManager;
+    private final TelemetryService telemetryService;
+    private final FleetStreamService fleetStreamService;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (DroneState droneState : DroneState.values()) {
+            Gauge.builder("drones.state", fleetIndex, index -> index.count(droneState))
+                    .description("Drones in state")
+                    .tag("state", droneState.name())
+                    .register(registry);
+        }
+        for (int i = 0; i + 1 < BATTERY_BUCKETS.length; i++) {
+            int from = BATTERY_BUCKETS[i];
+            int to = BATTERY_BUCKETS[i + 1] - 1;
+            Gauge.builder("drones.battery", fleetIndex, index -> index.countByBattery(from, to))
+                    .description("Drones with battery level in range, percent")
+                    .tag("level", from + "-" + to)
+                    .register(registry);
+        }
+        Gauge.builder("drones.telemetry.buffered", telemetryService, TelemetryService::getBufferedCount)
+                .description("Drones with battery readings not flushed to database")
+                .register(registry);
+        Gauge.builder("drones.loading.lock.waiting", droneLockManager, DroneLockManager::getQueueLength)
+                .description("Threads waiting for drone loading locks")
+                .register(registry);
+        Gauge.builder("drones.stream.subscribers", fleetStreamService, FleetStreamService::getSubscribersCount)
+                .description("Connected fleet stream subscribers")
+                .register(registry);
+    }
+}
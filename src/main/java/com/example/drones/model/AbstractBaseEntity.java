@@ -30,8 +30,11 @@ public class AbstractBaseEntity {
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'hh:mm:ss")
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    /**
+     * Set on insert too (rows inserted by SQL get column default), so change time is never null
+     */
     @UpdateTimestamp
-    @Column(name = "updatedAt")
+    @Column(name = "updatedAt", nullable = false, columnDefinition = "TIMESTAMP default CURRENT_TIMESTAMP")
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'hh:mm:ss")
     private LocalDateTime updatedAt;
 }
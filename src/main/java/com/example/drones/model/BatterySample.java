@@ -0,0 +1,62 @@
+package com.example.drones.model;
+
+import com.example.drones.enums.BatteryResolution;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Battery history of drone. RAW sample is a single reading, MINUTE and HOUR samples aggregate readings
+ * of the period starting at sampledAt, one sample per drone and period.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "battery_history", indexes = {
+        @Index(name = "BatteryHistoryDroneResolutionTime", columnList = "drone_id, resolution, sampled_at")
+})
+public class BatterySample implements Serializable {
+    private static final long serialVersionUID = -5290385342405466409L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "drone_id", nullable = false)
+    private Long droneId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "resolution", nullable = false, length = 8)
+    private BatteryResolution resolution;
+
+    @Column(name = "sampled_at", nullable = false)
+    private LocalDateTime sampledAt;
+
+    @Column(name = "battery_level")
+    private int batteryLevel;
+
+    @Column(name = "min_level")
+    private int minLevel;
+
+    @Column(name = "max_level")
+    private int maxLevel;
+
+    @Column(name = "samples")
+    private int samples;
+}
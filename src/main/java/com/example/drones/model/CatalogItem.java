@@ -0,0 +1,51 @@
+package com.example.drones.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Medication SKU of catalog, loaded in bulk by JDBC batches. Name is the catalog key.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "medication_catalog", uniqueConstraints = {
+        @UniqueConstraint(name = "UniqueCatalogName", columnNames = {"name"})
+})
+public class CatalogItem implements Serializable {
+    private static final long serialVersionUID = -4127903546162931871L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "weight", nullable = false)
+    private int weight;
+
+    @Column(name = "code")
+    private String code;
+
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
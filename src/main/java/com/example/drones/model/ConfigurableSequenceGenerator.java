@@ -0,0 +1,36 @@
+package com.example.drones.model;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Sequence generator with allocation size read from Hibernate settings (spring.jpa.properties.*)
+ * by the key given in {@link #ALLOCATION_SIZE_SETTING} parameter, falls back to the JDBC batch size,
+ * so one allocation covers one insert batch.
+ */
+public class ConfigurableSequenceGenerator extends SequenceStyleGenerator {
+    public static final String ALLOCATION_SIZE_SETTING = "allocation_size_setting";
+
+    private static final String BATCH_SIZE_SETTING = "hibernate.jdbc.batch_size";
+    private static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        Map<String, Object> settings = serviceRegistry.getService(ConfigurationService.class).getSettings();
+        int batchSize = ConfigurationHelper.getInt(BATCH_SIZE_SETTING, settings, DEFAULT_ALLOCATION_SIZE);
+        String setting = params.getProperty(ALLOCATION_SIZE_SETTING);
+        int allocationSize = setting == null ? batchSize : ConfigurationHelper.getInt(setting, settings, batchSize);
+        if (allocationSize < 1) {
+            throw new MappingException("Allocation size must be positive: " + setting + " = " + allocationSize);
+        }
+        params.setProperty(INCREMENT_PARAM, String.valueOf(allocationSize));
+        super.configure(type, params, serviceRegistry);
+    }
+}
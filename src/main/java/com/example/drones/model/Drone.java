@@ -5,7 +5,12 @@ import com.example.drones.enums.DroneState;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
@@ -16,6 +21,7 @@ import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
@@ -30,12 +36,21 @@ import java.util.List;
 @Builder
 @Table(name = "drones", uniqueConstraints = {
         @UniqueConstraint(name = "UniqueSerialNumber", columnNames = {"serial_number"})
+}, indexes = {
+        @Index(name = "DroneStateBattery", columnList = "drone_state, battery_capacity"),
+        @Index(name = "DroneModel", columnList = "drone_model"),
+        @Index(name = "DroneUpdatedAt", columnList = "updatedAt, id")
 })
 public class Drone extends AbstractBaseEntity implements Serializable {
     private static final long serialVersionUID = -3104079917782565552L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "drones_seq")
+    @GenericGenerator(name = "drones_seq", strategy = "com.example.drones.model.ConfigurableSequenceGenerator", parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "drones_seq"),
+            @Parameter(name = ConfigurableSequenceGenerator.ALLOCATION_SIZE_SETTING,
+                    value = "drones.id.drones.allocation-size")
+    })
     @Column(name = "id")
     private Long id;
 
@@ -52,10 +67,18 @@ public class Drone extends AbstractBaseEntity implements Serializable {
     @Column(name = "battery_capacity")
     private int batteryCapacity;
 
+    /**
+     * Total weight of loaded medications, maintained together with medication inserts
+     */
+    @Column(name = "loaded_weight", nullable = false, columnDefinition = "INT default 0")
+    private int loadedWeight;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "drone_state")
     private DroneState droneState;
 
-    @OneToMany(mappedBy = "drone", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @OneToMany(mappedBy = "drone", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Medication> medications = new ArrayList<>();
 }
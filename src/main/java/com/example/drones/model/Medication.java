@@ -3,15 +3,20 @@ package com.example.drones.model;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
-import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import javax.persistence.UniqueConstraint;
@@ -29,7 +34,12 @@ public class Medication extends AbstractBaseEntity implements Serializable {
     private static final long serialVersionUID = 8115257936474274239L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medications_seq")
+    @GenericGenerator(name = "medications_seq", strategy = "com.example.drones.model.ConfigurableSequenceGenerator", parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "medications_seq"),
+            @Parameter(name = ConfigurableSequenceGenerator.ALLOCATION_SIZE_SETTING,
+                    value = "drones.id.medications.allocation-size")
+    })
     @Column(name = "id")
     private Long id;
 
@@ -42,11 +52,12 @@ public class Medication extends AbstractBaseEntity implements Serializable {
     @Column(name = "code")
     private String code;
 
-    @Lob
-    @Column(name = "image")
-    private byte[] image;
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
 
-    @ManyToOne
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "drone_id")
     private Drone drone;
 }
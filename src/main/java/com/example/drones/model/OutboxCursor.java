@@ -0,0 +1,30 @@
+package com.example.drones.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.io.Serializable;
+
+/**
+ * Id of the last outbox event published to sink
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_cursors")
+public class OutboxCursor implements Serializable {
+    private static final long serialVersionUID = -3187042290653115367L;
+
+    @Id
+    @Column(name = "sink", length = 64)
+    private String sink;
+
+    @Column(name = "position", nullable = false)
+    private long position;
+}
@@ -0,0 +1,58 @@
+package com.example.drones.outbox;
+
+import com.example.drones.dto.OutboxEventDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events to a local NDJSON file (one event per line), every batch is written with one call and synced
+ */
+@Component
+@ConditionalOnProperty(name = "drones.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileOutboxSink implements OutboxSink {
+    private static final byte NEW_LINE = '\n';
+
+    private final Path path;
+    private final ObjectWriter writer;
+
+    public FileOutboxSink(@Value("${drones.outbox.file.path}") Path path, ObjectMapper objectMapper)
+            throws IOException {
+        this.path = path;
+        this.writer = objectMapper.writerFor(OutboxEventDTO.class);
+        Files.createDirectories(path.toAbsolutePath().getParent());
+    }
+
+    @Override
+    public String getName() {
+        return "file";
+    }
+
+    @Override
+    public void publish(List<OutboxEventDTO> events) throws IOException {
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        for (OutboxEventDTO event : events) {
+            lines.write(writer.writeValueAsBytes(event));
+            lines.write(NEW_LINE);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.drones.outbox;
+
+import com.example.drones.dto.OutboxEventDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the latest published events in memory, for tests and local runs without a broker
+ */
+@Component
+@ConditionalOnProperty(name = "drones.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+    private final String name;
+    private final int capacity;
+    private final Deque<OutboxEventDTO> events = new ArrayDeque<>();
+
+    @Autowired
+    public InMemoryOutboxSink(@Value("${drones.outbox.memory.capacity:10000}") int capacity) {
+        this("memory", capacity);
+    }
+
+    public InMemoryOutboxSink(String name, int capacity) {
+        this.name = name;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEventDTO> published) {
+        for (OutboxEventDTO event : published) {
+            if (events.size() == capacity) {
+                events.removeFirst();
+            }
+            events.addLast(event);
+        }
+    }
+
+    /**
+     * Get kept events
+     *
+     * @return events in publishing order
+     */
+    public synchronized List<OutboxEventDTO> getEvents() {
+        return new ArrayList<>(events);
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.drones.outbox;
+
+import com.example.drones.dto.OutboxEventDTO;
+import com.example.drones.model.OutboxCursor;
+import com.example.drones.repository.OutboxCursorRepository;
+import com.example.drones.repository.OutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Publishes outbox events to sink in id order. Events are read in batches after the saved position
+ * (no offset scans), the position is saved after every published batch, so relay resumes where it stopped.
+ * Ids are allocated before commit, so a missing id may belong to a transaction still in progress:
+ * relay waits for it up to gap timeout, after that the id is treated as rolled back and skipped.
+ * Skipped ids are re-checked for late window: an event committed late is published then, after newer events,
+ * and counted by {@value #LATE} metric. Skipped ids are kept in memory only, a restart forgets them.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    public static final String LATE = "drones.outbox.late";
+
+    private final OutboxRepository outboxRepository;
+    private final OutboxCursorRepository outboxCursorRepository;
+    private final OutboxSink outboxSink;
+    private final Pageable batch;
+    private final long gapTimeoutMs;
+    private final Duration retention;
+    private final long lateWindowMs;
+    private final Counter late;
+
+    private Long position;
+    private long gapId = -1;
+    private long gapSinceMs;
+    /**
+     * Skipped ids re-checked for late events: id -> skip time, epoch millis
+     */
+    private final NavigableMap<Long, Long> skipped = new TreeMap<>();
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+                       OutboxCursorRepository outboxCursorRepository,
+                       OutboxSink outboxSink,
+                       @Value("${drones.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${drones.outbox.relay.gap-timeout-ms:5000}") long gapTimeoutMs,
+                       @Value("${drones.outbox.retention:1d}") Duration retention,
+                       @Value("${drones.outbox.relay.late-window-ms:60000}") long lateWindowMs,
+                       MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.outboxCursorRepository = outboxCursorRepository;
+        this.outboxSink = outboxSink;
+        this.batch = PageRequest.of(0, batchSize);
+        this.gapTimeoutMs = gapTimeoutMs;
+        this.retention = retention;
+        this.lateWindowMs = lateWindowMs;
+        this.late = Counter.builder(LATE)
+                .description("Outbox events committed after their gap was skipped")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Publish new outbox events
+     */
+    @Scheduled(fixedDelayString = "${drones.outbox.relay.delay-ms:1000}")
+    public void relay() {
+        relay(System.currentTimeMillis());
+    }
+
+    /**
+     * Delete published events older than retention, younger ones can be replayed from outbox table
+     */
+    @Scheduled(fixedDelayString = "${drones.outbox.purge-delay-ms:3600000}")
+    public synchronized void purge() {
+        if (position == null) {
+            return;
+        }
+        int deleted = outboxRepository.deletePublishedBefore(position, LocalDateTime.now().minus(retention));
+        log.debug("Purged " + deleted + " published outbox events");
+    }
+
+    /**
+     * Publish batches of events following the position until there are no more or a gap is met,
+     * then events that arrived in skipped gaps
+     *
+     * @param nowMs current time, epoch millis
+     * @return number of published events
+     */
+    synchronized int relay(long nowMs) {
+        if (position == null) {
+            position = outboxCursorRepository.findById(outboxSink.getName())
+                    .map(OutboxCursor::getPosition)
+                    .orElse(0L);
+        }
+        int published = 0;
+        List<OutboxEventDTO> events;
+        do {
+            events = outboxRepository.findAfter(position, batch);
+            List<OutboxEventDTO> ready = takeContiguous(events, nowMs);
+            if (ready.isEmpty()) {
+                break;
+            }
+            try {
+                outboxSink.publish(ready);
+            } catch (IOException e) {
+                log.error("Can't publish " + ready.size() + " outbox events to sink " + outboxSink.getName(), e);
+                break;
+            }
+            position = ready.get(ready.size() - 1).getId();
+            outboxCursorRepository.save(new OutboxCursor(outboxSink.getName(), position));
+            published += ready.size();
+            if (ready.size() < events.size()) {
+                break;
+            }
+        } while (events.size() == batch.getPageSize());
+        if (published > 0) {
+            log.debug("Published " + published + " outbox events, position: " + position);
+        }
+        return published + relayLate(nowMs);
+    }
+
+    /**
+     * Publish events committed in skipped gaps, then forget ids skipped longer than late window ago
+     */
+    private int relayLate(long nowMs) {
+        int published = 0;
+        List<Long> ids = new ArrayList<>(skipped.keySet());
+        for (int from = 0; from < ids.size(); from += batch.getPageSize()) {
+            List<OutboxEventDTO> events = outboxRepository.findByIds(
+                    ids.subList(from, Math.min(from + batch.getPageSize(), ids.size())));
+            if (events.isEmpty()) {
+                continue;
+            }
+            try {
+                outboxSink.publish(events);
+            } catch (IOException e) {
+                log.error("Can't publish " + events.size() + " late outbox events to sink " + outboxSink.getName(), e);
+                break;
+            }
+            events.forEach(event -> skipped.remove(event.getId()));
+            late.increment(events.size());
+            published += events.size();
+            log.warn("Published " + events.size() + " outbox events committed after their gap was skipped, from id: "
+                    + events.get(0).getId());
+        }
+        skipped.values().removeIf(skippedAtMs -> nowMs - skippedAtMs >= lateWindowMs);
+        return published;
+    }
+
+    /**
+     * Take events up to the first gap in ids, gap older than timeout is skipped
+     */
+    private List<OutboxEventDTO> takeContiguous(List<OutboxEventDTO> events, long nowMs) {
+        List<OutboxEventDTO> ready = new ArrayList<>(events.size());
+        long expected = position + 1;
+        for (OutboxEventDTO event : events) {
+            if (event.getId() != expected) {
+                if (!isGapExpired(expected, nowMs)) {
+                    break;
+                }
+                for (long id = expected; id < event.getId(); id++) {
+                    skipped.put(id, nowMs);
+                }
+            }
+            ready.add(event);
+            expected = event.getId() + 1;
+        }
+        return ready;
+    }
+
+    private boolean isGapExpired(long missingId, long nowMs) {
+        if (gapId != missingId) {
+            gapId = missingId;
+            gapSinceMs = nowMs;
+        }
+        if (nowMs - gapSinceMs < gapTimeoutMs) {
+            return false;
+        }
+        log.warn("Outbox events from id: " + missingId + " weren't committed in " + gapTimeoutMs + " ms, skipped");
+        return true;
+    }
+}
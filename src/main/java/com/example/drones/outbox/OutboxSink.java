@@ -0,0 +1,27 @@
+package com.example.drones.outbox;
+
+import com.example.drones.dto.OutboxEventDTO;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of outbox events, stand-in for a message broker. Delivery is at-least-once:
+ * a batch may be published again if relay fails before saving its position.
+ */
+public interface OutboxSink {
+    /**
+     * Sink name, relay position is kept per sink
+     *
+     * @return sink name
+     */
+    String getName();
+
+    /**
+     * Publish events, returns when they are durably accepted
+     *
+     * @param events events in outbox order
+     * @throws IOException if events can't be published
+     */
+    void publish(List<OutboxEventDTO> events) throws IOException;
+}
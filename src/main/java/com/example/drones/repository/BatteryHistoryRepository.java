@@ -0,0 +1,66 @@
+package com.example.drones.repository;
+
+import com.example.drones.dto.BatterySampleDTO;
+import com.example.drones.enums.BatteryResolution;
+import com.example.drones.model.BatterySample;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BatteryHistoryRepository extends JpaRepository<BatterySample, Long> {
+    /**
+     * Sum of levels of samples weighted by number of readings in them
+     */
+    String LEVEL_SUM = "sum(cast(battery_level as bigint) * samples)";
+    /**
+     * Source aggregates are merged into target samples of the same period, so samples arriving after
+     * their period was aggregated update the existing aggregate instead of adding a second one
+     */
+    String MERGE_AGGREGATES = " on (t.drone_id = s.drone_id and t.resolution = s.resolution "
+            + "and t.sampled_at = s.period) "
+            + "when matched then update set battery_level = cast(round((cast(t.battery_level as bigint) * t.samples "
+            + "+ s.level_sum) / cast(t.samples + s.samples as double)) as int), "
+            + "min_level = least(t.min_level, s.min_level), max_level = greatest(t.max_level, s.max_level), "
+            + "samples = t.samples + s.samples "
+            + "when not matched then insert "
+            + "(drone_id, resolution, sampled_at, battery_level, min_level, max_level, samples) "
+            + "values (s.drone_id, s.resolution, s.period, cast(round(s.level_sum / cast(s.samples as double)) as int), "
+            + "s.min_level, s.max_level, s.samples)";
+
+    @Query("select new com.example.drones.dto.BatterySampleDTO("
+            + "s.sampledAt, s.batteryLevel, s.minLevel, s.maxLevel, s.samples) from BatterySample s "
+            + "where s.droneId = :droneId and s.resolution = :resolution "
+            + "and s.sampledAt >= :from and s.sampledAt < :to order by s.sampledAt")
+    List<BatterySampleDTO> findSamples(Long droneId, BatteryResolution resolution, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Aggregate RAW samples older than cutoff into MINUTE samples
+     */
+    @Modifying
+    @Query(value = "merge into battery_history t using ("
+            + "select drone_id, 'MINUTE' resolution, date_trunc('MINUTE', sampled_at) period, " + LEVEL_SUM
+            + " level_sum, min(min_level) min_level, max(max_level) max_level, sum(samples) samples "
+            + "from battery_history where resolution = 'RAW' and sampled_at < :cutoff "
+            + "group by drone_id, date_trunc('MINUTE', sampled_at)) s" + MERGE_AGGREGATES, nativeQuery = true)
+    int downsampleRawToMinutes(LocalDateTime cutoff);
+
+    /**
+     * Aggregate MINUTE samples older than cutoff into HOUR samples
+     */
+    @Modifying
+    @Query(value = "merge into battery_history t using ("
+            + "select drone_id, 'HOUR' resolution, date_trunc('HOUR', sampled_at) period, " + LEVEL_SUM
+            + " level_sum, min(min_level) min_level, max(max_level) max_level, sum(samples) samples "
+            + "from battery_history where resolution = 'MINUTE' and sampled_at < :cutoff "
+            + "group by drone_id, date_trunc('HOUR', sampled_at)) s" + MERGE_AGGREGATES, nativeQuery = true)
+    int downsampleMinutesToHours(LocalDateTime cutoff);
+
+    @Modifying
+    @Query("delete from BatterySample s where s.resolution = :resolution and s.sampledAt < :cutoff")
+    int deleteOlderThan(BatteryResolution resolution, LocalDateTime cutoff);
+}
@@ -0,0 +1,18 @@
+package com.example.drones.repository;
+
+import com.example.drones.model.CatalogItem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CatalogItemRepository extends JpaRepository<CatalogItem, Long> {
+    Optional<CatalogItem> findByName(String name);
+
+    @Query("select c.name from CatalogItem c where c.name in :names")
+    List<String> findExistingNames(Collection<String> names);
+}
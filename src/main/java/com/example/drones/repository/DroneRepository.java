@@ -1,14 +1,81 @@
 package com.example.drones.repository;
 
+import com.example.drones.enums.DroneState;
+import com.example.drones.index.DroneSnapshot;
 import com.example.drones.model.Drone;
+import com.example.drones.scheduler.DroneBatteryRecord;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface DroneRepository extends JpaRepository<Drone, Long> {
-    @Query(value = "select * from drones where drone_state = 'IDLE' and battery_capacity > :minBatteryLevel", nativeQuery = true)
-    List<Drone> getAllAvailableDrones(int minBatteryLevel);
+public interface DroneRepository extends JpaRepository<Drone, Long>, DroneRepositoryCustom {
+    /**
+     * Forward-only stream of all drones in id order, rows are fetched from database in chunks of fetch size.
+     * Must be consumed in a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.READ_ONLY, value = "true")
+    })
+    @Query("select d from Drone d order by d.id")
+    Stream<Drone> streamAll();
+
+    @Query("select d.batteryCapacity from Drone d where d.id = :droneId")
+    Optional<Integer> findBatteryCapacityById(Long droneId);
+
+    @Query("select new com.example.drones.index.DroneSnapshot("
+            + "d.id, d.serialNumber, d.droneModel, d.weightLimit, d.loadedWeight, d.batteryCapacity, d.droneState) "
+            + "from Drone d")
+    List<DroneSnapshot> findAllSnapshots();
+
+    /**
+     * Page of drones changed after position (change time, drone id) in order of position. Seeks range
+     * of (updated_at, id) index, so cost depends on number of changed drones, not on fleet size.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"))
+    @Query("select new com.example.drones.scheduler.DroneBatteryRecord(d.id, d.batteryCapacity, d.updatedAt) "
+            + "from Drone d where d.updatedAt >= :changedAt and (d.updatedAt > :changedAt or d.id > :droneId) "
+            + "order by d.updatedAt, d.id")
+    List<DroneBatteryRecord> findBatteryChangedAfter(LocalDateTime changedAt, Long droneId, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update Drone d set d.droneState = com.example.drones.enums.DroneState.LOADING, "
+            + "d.version = d.version + 1, d.updatedAt = current_timestamp "
+            + "where d.id = :droneId and d.droneState = com.example.drones.enums.DroneState.IDLE "
+            + "and d.batteryCapacity >= :minBatteryLevel")
+    int claimForLoading(Long droneId, int minBatteryLevel);
+
+    /**
+     * Move drone from state to state, change time is given by caller to record the same time in battery history
+     */
+    @Transactional
+    @Modifying
+    @Query("update Drone d set d.droneState = :to, d.version = d.version + 1, d.updatedAt = :updatedAt "
+            + "where d.id = :droneId and d.droneState = :from")
+    int updateDroneState(Long droneId, DroneState from, DroneState to, LocalDateTime updatedAt);
+
+    /**
+     * Add weight to drone's loaded weight if it stays within weight limit, in caller's transaction
+     */
+    @Transactional
+    @Modifying
+    @Query("update Drone d set d.loadedWeight = d.loadedWeight + :weight, d.version = d.version + 1, "
+            + "d.updatedAt = current_timestamp where d.id = :droneId and d.loadedWeight + :weight <= d.weightLimit")
+    int addLoadedWeight(Long droneId, int weight);
+
+    @Query("select d.serialNumber from Drone d where d.serialNumber in :serialNumbers")
+    List<String> findExistingSerialNumbers(Collection<String> serialNumbers);
 }
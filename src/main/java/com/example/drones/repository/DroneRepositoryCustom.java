@@ -0,0 +1,22 @@
+package com.example.drones.repository;
+
+import com.example.drones.dto.DroneSummaryDTO;
+import com.example.drones.enums.DroneModel;
+import com.example.drones.enums.DroneState;
+
+import java.util.List;
+
+public interface DroneRepositoryCustom {
+    /**
+     * Find drones after the given id in id order (keyset pagination), only given filters get into the query
+     *
+     * @param droneState      drone state or null for any
+     * @param droneModel      drone model or null for any
+     * @param minBatteryLevel battery level (inclusive) or null for any
+     * @param after           id of the last drone of the previous page or null for the first page
+     * @param limit           max number of drones
+     * @return drone summaries
+     */
+    List<DroneSummaryDTO> findSummaries(DroneState droneState, DroneModel droneModel, Integer minBatteryLevel,
+                                        Long after, int limit);
+}
@@ -0,0 +1,55 @@
+package com.example.drones.repository;
+
+import com.example.drones.dto.DroneSummaryDTO;
+import com.example.drones.enums.DroneModel;
+import com.example.drones.enums.DroneState;
+import com.example.drones.model.Drone;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Drone queries built from present filters only, so the database can use matching indexes
+ * instead of evaluating "parameter is null or ..." conditions
+ */
+public class DroneRepositoryImpl implements DroneRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<DroneSummaryDTO> findSummaries(DroneState droneState, DroneModel droneModel, Integer minBatteryLevel,
+                                               Long after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<DroneSummaryDTO> query = cb.createQuery(DroneSummaryDTO.class);
+        Root<Drone> drone = query.from(Drone.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (droneState != null) {
+            predicates.add(cb.equal(drone.get("droneState"), droneState));
+        }
+        if (minBatteryLevel != null) {
+            predicates.add(cb.greaterThanOrEqualTo(drone.get("batteryCapacity"), minBatteryLevel));
+        }
+        if (droneModel != null) {
+            predicates.add(cb.equal(drone.get("droneModel"), droneModel));
+        }
+        if (after != null) {
+            predicates.add(cb.greaterThan(drone.get("id"), after));
+        }
+
+        query.select(cb.construct(DroneSummaryDTO.class, drone.get("id"), drone.get("serialNumber"),
+                drone.get("droneModel"), drone.get("weightLimit"), drone.get("batteryCapacity"),
+                drone.get("droneState"), drone.get("loadedWeight")))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(drone.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -1,11 +1,38 @@
 package com.example.drones.repository;
 
+import com.example.drones.dto.MedicationSummaryDTO;
 import com.example.drones.model.Medication;
+import com.example.drones.service.MedicationExportRecord;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
-import java.util.UUID;
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface MedicationRepository extends JpaRepository<Medication, Long> {
+    @EntityGraph(attributePaths = "drone")
+    List<Medication> findAllByDroneIdOrderById(Long droneId);
+
+    /**
+     * Forward-only stream of all medications in id order, rows are fetched from database in chunks of fetch size.
+     * Rows are read as records, not entities, so persistence context doesn't grow. Must be consumed
+     * in a transaction and closed.
+     */
+    @QueryHints(@QueryHint(name = org.hibernate.annotations.QueryHints.FETCH_SIZE, value = "500"))
+    @Query("select new com.example.drones.service.MedicationExportRecord(m.id, m.name, m.weight, m.code, "
+            + "m.imageHash, m.drone.id, m.createdAt, m.updatedAt) from Medication m order by m.id")
+    Stream<MedicationExportRecord> streamExportRecords();
+
+    @Query("select m.imageHash from Medication m where m.id = :medicationId")
+    Optional<String> findImageHashById(Long medicationId);
+
+    @Query("select new com.example.drones.dto.MedicationSummaryDTO(m.id, m.name, m.weight, m.code, m.drone.id) "
+            + "from Medication m where m.drone.id = :droneId order by m.id")
+    List<MedicationSummaryDTO> findSummariesByDroneId(Long droneId);
 }
@@ -0,0 +1,33 @@
+package com.example.drones.repository;
+
+import com.example.drones.dto.OutboxEventDTO;
+import com.example.drones.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+    @Query("select new com.example.drones.dto.OutboxEventDTO(e.id, e.droneId, e.eventType, e.payload, e.createdAt) "
+            + "from OutboxEvent e where e.id > :position order by e.id")
+    List<OutboxEventDTO> findAfter(long position, Pageable pageable);
+
+    @Query("select new com.example.drones.dto.OutboxEventDTO(e.id, e.droneId, e.eventType, e.payload, e.createdAt) "
+            + "from OutboxEvent e where e.id in :ids order by e.id")
+    List<OutboxEventDTO> findByIds(Collection<Long> ids);
+
+    /**
+     * Delete events already published to sink and created before cutoff
+     */
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id <= :position and e.createdAt < :cutoff")
+    int deletePublishedBefore(long position, LocalDateTime cutoff);
+}
@@ -0,0 +1,15 @@
+package com.example.drones.scheduler;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Battery level of drone at the moment of its last change
+ */
+@Value
+public class DroneBatteryRecord {
+    Long id;
+    int batteryCapacity;
+    LocalDateTime changedAt;
+}
@@ -1,27 +1,83 @@
 package com.example.drones.scheduler;
 
 import com.example.drones.repository.DroneRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.drones.service.BatteryHistoryService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-@Slf4j
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Slf4j(topic = "drones.battery")
 @Component
-@RequiredArgsConstructor
 public class DroneScheduler {
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final DroneRepository droneRepository;
+    private final BatteryHistoryService batteryHistoryService;
+    private final Pageable page;
+    private final Duration commitLag;
+
+    /**
+     * Latest logged change time
+     */
+    private LocalDateTime lastChangedAt = EPOCH;
+    /**
+     * Logged changes inside commit lag window: drone id -> change time
+     */
+    private final Map<Long, LocalDateTime> logged = new HashMap<>();
+
+    public DroneScheduler(DroneRepository droneRepository,
+                          BatteryHistoryService batteryHistoryService,
+                          @Value("${drones.scheduler.battery.page-size:500}") int pageSize,
+                          @Value("${drones.scheduler.battery.commit-lag:30s}") Duration commitLag) {
+        this.droneRepository = droneRepository;
+        this.batteryHistoryService = batteryHistoryService;
+        this.page = PageRequest.of(0, pageSize);
+        this.commitLag = commitLag;
+    }
 
     /**
-     * Scheduler to log drones states every 1 minute
+     * Scheduler to log batteries levels of drones changed since previous run (all drones on the first run).
+     * Drones are read by pages in order of change time, one compact record per drone is logged
+     * and added to battery history. Change time is stamped before commit, so a change may become visible
+     * after later ones: every run re-reads changes from commit lag before the latest logged one and skips
+     * changes already logged.
      */
-    @Scheduled(fixedRate = 60000)
+    @Scheduled(fixedDelayString = "${drones.scheduler.battery.delay-ms:60000}")
     public void checkDronesBatteriesLevels() {
-        StringBuilder sb = new StringBuilder();
-        droneRepository.findAll()
-                .forEach(drone -> sb.append("\n")
-                        .append("Drone id: ").append(drone.getId())
-                        .append(", Battery level: ").append(drone.getBatteryCapacity()));
-        log.info(sb.toString());
+        LocalDateTime changedAt = lastChangedAt.minus(commitLag);
+        Long droneId = -1L;
+        int count = 0;
+        List<DroneBatteryRecord> records;
+        do {
+            records = droneRepository.findBatteryChangedAfter(changedAt, droneId, page);
+            for (DroneBatteryRecord record : records) {
+                changedAt = record.getChangedAt();
+                droneId = record.getId();
+                LocalDateTime previous = logged.get(droneId);
+                if (previous != null && !changedAt.isAfter(previous)) {
+                    continue;
+                }
+                logged.put(droneId, changedAt);
+                log.info("drone={} battery={} changedAt={}", droneId, record.getBatteryCapacity(), changedAt);
+                batteryHistoryService.record(droneId, record.getBatteryCapacity(), changedAt);
+                if (changedAt.isAfter(lastChangedAt)) {
+                    lastChangedAt = changedAt;
+                }
+                count++;
+            }
+        } while (records.size() == page.getPageSize());
+        // changes older than the next run's window are never read again
+        LocalDateTime windowStart = lastChangedAt.minus(commitLag);
+        logged.values().removeIf(loggedAt -> loggedAt.isBefore(windowStart));
+        log.debug("Battery snapshot: {} drones changed", count);
     }
 }
@@ -0,0 +1,170 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.BatterySampleDTO;
+import com.example.drones.enums.BatteryResolution;
+import com.example.drones.model.BatterySample;
+import com.example.drones.repository.BatteryHistoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Battery history of drones in three tiers: RAW readings, MINUTE and HOUR aggregates.
+ * Readings are buffered and appended in JDBC batches, old tiers are periodically downsampled
+ * to the next one and HOUR samples are dropped after retention, so storage stays bounded.
+ * Buffer is bounded too: readings recorded while it's full are dropped and counted.
+ * Duplicate readings (same drone, time and level) are written once.
+ */
+@Slf4j
+@Service
+public class BatteryHistoryService {
+    public static final String DROPPED = "drones.battery-history.dropped";
+
+    private static final int INSERT_BATCH_SIZE = 50;
+    /**
+     * A change is recorded both by the transition that made it and by the battery scheduler reading it back,
+     * with the same change time, so a reading already in RAW tier isn't inserted again
+     */
+    private static final String INSERT_RAW = "insert into battery_history "
+            + "(drone_id, resolution, sampled_at, battery_level, min_level, max_level, samples) "
+            + "select cast(?1 as bigint), 'RAW', cast(?2 as timestamp), cast(?3 as int), ?3, ?3, 1 from dual "
+            + "where not exists (select 1 from battery_history where drone_id = ?1 and resolution = 'RAW' "
+            + "and sampled_at = ?2 and battery_level = ?3)";
+
+    private final BatteryHistoryRepository batteryHistoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration rawRetention;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+    private final int maxPending;
+    private final Counter dropped;
+    private final Queue<BatterySample> pending = new ConcurrentLinkedQueue<>();
+    /**
+     * Size of pending queue, size() of concurrent queue traverses it
+     */
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    public BatteryHistoryService(BatteryHistoryRepository batteryHistoryRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${drones.battery-history.raw-retention:1h}") Duration rawRetention,
+                                 @Value("${drones.battery-history.minute-retention:1d}") Duration minuteRetention,
+                                 @Value("${drones.battery-history.hour-retention:90d}") Duration hourRetention,
+                                 @Value("${drones.battery-history.max-pending:100000}") int maxPending) {
+        this.batteryHistoryRepository = batteryHistoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.rawRetention = rawRetention;
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+        this.maxPending = maxPending;
+        this.dropped = Counter.builder(DROPPED)
+                .description("Battery readings dropped because history buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record battery reading, it's written to history with the next flush or dropped if buffer is full
+     *
+     * @param droneId      drone id
+     * @param batteryLevel battery level
+     * @param sampledAt    reading time
+     */
+    public void record(Long droneId, int batteryLevel, LocalDateTime sampledAt) {
+        if (pendingCount.incrementAndGet() > maxPending) {
+            pendingCount.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        pending.add(BatterySample.builder()
+                .droneId(droneId)
+                .batteryLevel(batteryLevel)
+                .sampledAt(sampledAt)
+                .build());
+    }
+
+    /**
+     * Get battery history of drone in one resolution tier
+     *
+     * @param droneId    drone id
+     * @param from       period start (inclusive)
+     * @param to         period end (exclusive)
+     * @param resolution resolution tier
+     * @return samples ordered by time
+     */
+    public List<BatterySampleDTO> getHistory(Long droneId, LocalDateTime from, LocalDateTime to,
+                                             BatteryResolution resolution) {
+        return batteryHistoryRepository.findSamples(droneId, resolution, from, to);
+    }
+
+    /**
+     * Append recorded readings to history in JDBC batches. Last flush runs on shutdown: this bean is destroyed
+     * before datasource, in-memory database must not be closed by its own shutdown hook (DB_CLOSE_ON_EXIT=FALSE).
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${drones.battery-history.flush-delay-ms:5000}")
+    public void flush() {
+        List<BatterySample> samples = new ArrayList<>();
+        for (BatterySample sample = pending.poll(); sample != null; sample = pending.poll()) {
+            pendingCount.decrementAndGet();
+            samples.add(sample);
+        }
+        if (samples.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_RAW, samples, INSERT_BATCH_SIZE, (ps, sample) -> {
+                ps.setLong(1, sample.getDroneId());
+                ps.setTimestamp(2, Timestamp.valueOf(sample.getSampledAt()));
+                ps.setInt(3, sample.getBatteryLevel());
+            });
+        } catch (DataAccessException e) {
+            log.error("Can't write " + samples.size() + " battery samples", e);
+        }
+    }
+
+    /**
+     * Aggregate RAW samples older than raw retention into MINUTE ones, MINUTE samples older than minute retention
+     * into HOUR ones, drop HOUR samples older than hour retention. Cutoffs are aligned to period start,
+     * so every period is aggregated completely; samples arriving later (e.g. with old change time) are merged
+     * into the existing aggregate of their period, so there is one aggregate per drone and period.
+     */
+    @Scheduled(fixedDelayString = "${drones.battery-history.downsample-delay-ms:60000}")
+    public void downsample() {
+        downsample(LocalDateTime.now());
+    }
+
+    void downsample(LocalDateTime now) {
+        LocalDateTime rawCutoff = now.minus(rawRetention).truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime minuteCutoff = now.minus(minuteRetention).truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime hourCutoff = now.minus(hourRetention).truncatedTo(ChronoUnit.HOURS);
+        transactionTemplate.executeWithoutResult(status -> {
+            int minutes = batteryHistoryRepository.downsampleRawToMinutes(rawCutoff);
+            int raw = batteryHistoryRepository.deleteOlderThan(BatteryResolution.RAW, rawCutoff);
+            int hours = batteryHistoryRepository.downsampleMinutesToHours(minuteCutoff);
+            int minutesDeleted = batteryHistoryRepository.deleteOlderThan(BatteryResolution.MINUTE, minuteCutoff);
+            int expired = batteryHistoryRepository.deleteOlderThan(BatteryResolution.HOUR, hourCutoff);
+            log.debug("Battery history downsampled: " + raw + " raw to " + minutes + " minute samples, "
+                    + minutesDeleted + " minute to " + hours + " hour samples, " + expired + " hour samples expired");
+        });
+    }
+}
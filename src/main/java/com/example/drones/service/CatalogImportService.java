@@ -0,0 +1,383 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.CatalogImportErrorDTO;
+import com.example.drones.dto.CatalogImportResultDTO;
+import com.example.drones.dto.MedicationDTO;
+import com.example.drones.enums.CatalogFormat;
+import com.example.drones.exception.CheckException;
+import com.example.drones.model.CatalogItem;
+import com.example.drones.repository.CatalogItemRepository;
+import com.example.drones.validation.MedicationValidator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of medication catalog from CSV (header row with name, weight, code, imageHash columns) or NDJSON.
+ * The file is read line by line in chunks, chunks are parsed and validated in parallel by a small pool
+ * (a bounded number of chunks in flight, so memory doesn't depend on file size), then checked for duplicate
+ * names and inserted in order by JDBC batches, one transaction per chunk. Invalid rows are reported by line
+ * and don't abort the others.
+ */
+@Slf4j
+@Service
+public class CatalogImportService {
+    static final String NAME_COLUMN = "name";
+    static final String WEIGHT_COLUMN = "weight";
+    static final String CODE_COLUMN = "code";
+    static final String IMAGE_HASH_COLUMN = "imageHash";
+
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final int MAX_NAME_LENGTH = 255;
+    private static final int IMAGE_HASH_LENGTH = 64;
+    private static final String INSERT_ITEM = "insert into medication_catalog (name, weight, code, image_hash, "
+            + "created_at) values (?, ?, ?, ?, ?)";
+
+    private final CatalogItemRepository catalogItemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Executor executor;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+
+    @Autowired
+    public CatalogImportService(CatalogItemRepository catalogItemRepository,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper,
+                                @Value("${drones.catalog.import.threads:4}") int threads,
+                                @Value("${drones.catalog.import.chunk-size:1000}") int chunkSize) {
+        this(catalogItemRepository, jdbcTemplate, transactionTemplate, objectMapper, newExecutor(threads),
+                chunkSize, threads * 2);
+    }
+
+    CatalogImportService(CatalogItemRepository catalogItemRepository,
+                         JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         ObjectMapper objectMapper,
+                         Executor executor,
+                         int chunkSize,
+                         int maxChunksInFlight) {
+        this.catalogItemRepository = catalogItemRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = maxChunksInFlight;
+    }
+
+    /**
+     * Import catalog items, names already in catalog or repeated in file are rejected.
+     * Stream read failure is reported and stops the import, items read before it are imported.
+     *
+     * @param reader catalog content, isn't closed
+     * @param format content format
+     * @return number of imported items and rejected ones by line
+     * @throws IOException if CSV header can't be read
+     */
+    public CatalogImportResultDTO importCatalog(Reader reader, CatalogFormat format) throws IOException {
+        log.info("Start importing medication catalog, format: " + format);
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        CatalogImportResultDTO result = new CatalogImportResultDTO();
+        Function<String, MedicationDTO> parser;
+        int lineNumber = 0;
+        if (format == CatalogFormat.CSV) {
+            parser = csvParser(lines.readLine());
+            lineNumber++;
+        } else {
+            parser = this::parseJson;
+        }
+
+        Set<String> names = new HashSet<>();
+        Deque<CompletableFuture<ValidatedChunk>> inFlight = new ArrayDeque<>();
+        List<String> chunk = new ArrayList<>(chunkSize);
+        int chunkFirstLine = lineNumber + 1;
+        for (String line = readLine(lines, lineNumber + 1, result); line != null;
+             line = readLine(lines, lineNumber + 1, result)) {
+            lineNumber++;
+            chunk.add(line);
+            if (chunk.size() == chunkSize) {
+                inFlight.add(submit(chunk, chunkFirstLine, parser));
+                chunk = new ArrayList<>(chunkSize);
+                chunkFirstLine = lineNumber + 1;
+                if (inFlight.size() == maxChunksInFlight) {
+                    saveChunk(inFlight.poll().join(), names, result);
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            inFlight.add(submit(chunk, chunkFirstLine, parser));
+        }
+        while (!inFlight.isEmpty()) {
+            saveChunk(inFlight.poll().join(), names, result);
+        }
+
+        result.getRejected().sort(Comparator.comparingInt(CatalogImportErrorDTO::getLine));
+        log.info("Imported " + result.getImported() + " catalog items, rejected " + result.getRejected().size());
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    /**
+     * Read next line, read failure is reported and ends the input
+     */
+    private static String readLine(BufferedReader lines, int lineNumber, CatalogImportResultDTO result) {
+        try {
+            return lines.readLine();
+        } catch (IOException e) {
+            result.getRejected().add(new CatalogImportErrorDTO(lineNumber, null, "Can't read line: " + e.getMessage()));
+            return null;
+        }
+    }
+
+    private CompletableFuture<ValidatedChunk> submit(List<String> lines, int firstLine,
+                                                     Function<String, MedicationDTO> parser) {
+        return CompletableFuture.supplyAsync(() -> validateChunk(lines, firstLine, parser), executor);
+    }
+
+    /**
+     * Parse and check lines of chunk, blank lines are skipped
+     */
+    private static ValidatedChunk validateChunk(List<String> lines, int firstLine,
+                                                Function<String, MedicationDTO> parser) {
+        ValidatedChunk chunk = new ValidatedChunk(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            int lineNumber = firstLine + i;
+            MedicationDTO medicationDTO;
+            try {
+                medicationDTO = parser.apply(line);
+            } catch (RuntimeException e) {
+                chunk.rejected.add(new CatalogImportErrorDTO(lineNumber, null, e.getMessage()));
+                continue;
+            }
+            String error = checkItem(medicationDTO);
+            if (error != null) {
+                chunk.rejected.add(new CatalogImportErrorDTO(lineNumber, medicationDTO.getName(), error));
+                continue;
+            }
+            chunk.items.add(CatalogItem.builder()
+                    .name(medicationDTO.getName())
+                    .weight(medicationDTO.getWeight())
+                    .code(medicationDTO.getCode())
+                    .imageHash(medicationDTO.getImageHash())
+                    .build());
+            chunk.lines.add(lineNumber);
+        }
+        return chunk;
+    }
+
+    /**
+     * Insert valid items of chunk in JDBC batches skipping names already imported or repeated in file
+     */
+    private void saveChunk(ValidatedChunk chunk, Set<String> names, CatalogImportResultDTO result) {
+        result.getRejected().addAll(chunk.rejected);
+        if (chunk.items.isEmpty()) {
+            return;
+        }
+        Set<String> existing = new HashSet<>(catalogItemRepository.findExistingNames(chunk.items.stream()
+                .map(CatalogItem::getName)
+                .collect(Collectors.toList())));
+        List<CatalogItem> newItems = new ArrayList<>(chunk.items.size());
+        List<Integer> newLines = new ArrayList<>(chunk.items.size());
+        for (int i = 0; i < chunk.items.size(); i++) {
+            CatalogItem item = chunk.items.get(i);
+            int line = chunk.lines.get(i);
+            if (!names.add(item.getName())) {
+                result.getRejected().add(new CatalogImportErrorDTO(line, item.getName(),
+                        "Name is duplicated in catalog file"));
+            } else if (existing.contains(item.getName())) {
+                result.getRejected().add(new CatalogImportErrorDTO(line, item.getName(),
+                        "Medication with name: " + item.getName() + " is already in catalog"));
+            } else {
+                newItems.add(item);
+                newLines.add(line);
+            }
+        }
+        if (newItems.isEmpty()) {
+            return;
+        }
+
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(INSERT_ITEM, newItems, INSERT_BATCH_SIZE, (ps, item) -> {
+                        ps.setString(1, item.getName());
+                        ps.setInt(2, item.getWeight());
+                        ps.setString(3, item.getCode());
+                        ps.setString(4, item.getImageHash());
+                        ps.setTimestamp(5, createdAt);
+                    }));
+        } catch (DataAccessException e) {
+            // e.g. names inserted by a concurrent import, the whole chunk is rolled back
+            log.error("Can't save " + newItems.size() + " catalog items", e);
+            for (int i = 0; i < newItems.size(); i++) {
+                result.getRejected().add(new CatalogImportErrorDTO(newLines.get(i), newItems.get(i).getName(),
+                        "Can't save catalog item: " + e.getMostSpecificCause().getMessage()));
+            }
+            return;
+        }
+        result.setImported(result.getImported() + newItems.size());
+    }
+
+    /**
+     * Check catalog item, name and code follow medication rules
+     *
+     * @param medicationDTO parsed item
+     * @return error message or null if item is valid
+     */
+    private static String checkItem(MedicationDTO medicationDTO) {
+        String name = medicationDTO.getName();
+        if (name == null || name.isEmpty()) {
+            return MedicationValidator.NAME_REQUIRED_MESSAGE;
+        }
+        if (name.length() > MAX_NAME_LENGTH) {
+            return "Name can't be longer than " + MAX_NAME_LENGTH;
+        }
+        if (!MedicationValidator.isValidName(name)) {
+            return MedicationValidator.NAME_MESSAGE;
+        }
+        if (!MedicationValidator.isValidCode(medicationDTO.getCode())) {
+            return MedicationValidator.CODE_MESSAGE;
+        }
+        if (medicationDTO.getWeight() <= 0) {
+            return MedicationValidator.ITEM_WEIGHT_MESSAGE;
+        }
+        if (medicationDTO.getImageHash() != null && !isImageHash(medicationDTO.getImageHash())) {
+            return "Image hash must be SHA-256 hex hash";
+        }
+        return null;
+    }
+
+    private static boolean isImageHash(String hash) {
+        if (hash.length() != IMAGE_HASH_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < IMAGE_HASH_LENGTH; i++) {
+            char c = hash.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Build CSV line parser by header. Fields are split by comma without quoting: valid names, codes
+     * and hashes can't contain commas or quotes.
+     *
+     * @param header header line
+     * @return line parser
+     */
+    private static Function<String, MedicationDTO> csvParser(String header) {
+        if (header == null) {
+            throw new CheckException("CSV header is missing");
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : header.split(",", -1)) {
+            columns.add(column.trim());
+        }
+        int name = columns.indexOf(NAME_COLUMN);
+        int weight = columns.indexOf(WEIGHT_COLUMN);
+        int code = columns.indexOf(CODE_COLUMN);
+        int imageHash = columns.indexOf(IMAGE_HASH_COLUMN);
+        if (name < 0 || weight < 0) {
+            throw new CheckException("CSV header must contain columns: " + NAME_COLUMN + ", " + WEIGHT_COLUMN);
+        }
+        int size = columns.size();
+        return line -> {
+            String[] fields = line.split(",", -1);
+            if (fields.length != size) {
+                throw new IllegalArgumentException("Expected " + size + " columns, found " + fields.length);
+            }
+            MedicationDTO medicationDTO = new MedicationDTO();
+            medicationDTO.setName(field(fields, name));
+            medicationDTO.setCode(field(fields, code));
+            medicationDTO.setImageHash(field(fields, imageHash));
+            String weightField = field(fields, weight);
+            try {
+                medicationDTO.setWeight(weightField == null ? 0 : Integer.parseInt(weightField));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Weight must be a number: " + weightField);
+            }
+            return medicationDTO;
+        };
+    }
+
+    /**
+     * Get trimmed field, empty field is null
+     */
+    private static String field(String[] fields, int index) {
+        if (index < 0) {
+            return null;
+        }
+        String value = fields[index].trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private MedicationDTO parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, MedicationDTO.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads,
+                runnable -> new Thread(runnable, "catalog-import-" + counter.incrementAndGet()));
+    }
+
+    /**
+     * Valid items of chunk with their line numbers and rejected lines
+     */
+    private static class ValidatedChunk {
+        private final List<CatalogItem> items;
+        private final List<Integer> lines;
+        private final List<CatalogImportErrorDTO> rejected = new ArrayList<>(0);
+
+        private ValidatedChunk(int size) {
+            this.items = new ArrayList<>(size);
+            this.lines = new ArrayList<>(size);
+        }
+    }
+}
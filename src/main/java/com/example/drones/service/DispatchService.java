@@ -0,0 +1,129 @@
+package com.example.drones.service;
+
+import com.example.drones.dispatch.DispatchPlanner;
+import com.example.drones.dto.DispatchPlanDTO;
+import com.example.drones.dto.DispatchPlanRequestDTO;
+import com.example.drones.dto.DroneAssignmentDTO;
+import com.example.drones.dto.DroneDTO;
+import com.example.drones.dto.MedicationDTO;
+import com.example.drones.dto.UnassignedMedicationDTO;
+import com.example.drones.enums.DroneModel;
+import com.example.drones.exception.CheckException;
+import com.example.drones.validation.MedicationValidator;
+import com.example.drones.validation.MedicationViolation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Dispatch planning: split a manifest across available drones, so client doesn't pick drones by trial and error.
+ * Plan is advisory, nothing is loaded: assigned medications carry drone id and can be sent to loading as is.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class DispatchService {
+    static final String NO_MEDICATIONS_MESSAGE = "Medications haven't been provided";
+    static final String NO_DRONE_MESSAGE = "No available drone can take medication";
+
+    private final DroneService droneService;
+    private final MedicationValidator medicationValidator;
+    private final DispatchPlanner dispatchPlanner;
+
+    /**
+     * Plan medications loading to available drones. Drones of preferred model are filled first,
+     * then drones with higher battery level, then drones with higher weight limit.
+     * Drones take medications up to weight limit minus already loaded weight.
+     * Medications with invalid format or not fitting any drone are returned as unassigned.
+     *
+     * @param request medications and drone preferences
+     * @return drones with assigned medications and unassigned medications
+     * @throws CheckException if no medications are provided
+     */
+    public DispatchPlanDTO plan(DispatchPlanRequestDTO request) {
+        List<MedicationDTO> medicationDTOs = request.getMedications();
+        if (CollectionUtils.isEmpty(medicationDTOs)) {
+            throw new CheckException(NO_MEDICATIONS_MESSAGE);
+        }
+        DispatchPlanDTO plan = new DispatchPlanDTO();
+
+        boolean[] invalid = new boolean[medicationDTOs.size()];
+        for (MedicationViolation violation : medicationValidator.validateFormats(medicationDTOs)) {
+            if (!invalid[violation.getIndex()]) {
+                invalid[violation.getIndex()] = true;
+                unassigned(plan, medicationDTOs, violation.getIndex(), violation.getMessage());
+            }
+        }
+        List<Integer> candidates = new ArrayList<>(medicationDTOs.size());
+        for (int i = 0; i < medicationDTOs.size(); i++) {
+            if (!invalid[i]) {
+                candidates.add(i);
+            }
+        }
+
+        List<DroneDTO> drones = new ArrayList<>(droneService.getAllAvailableDrones());
+        drones.sort(preference(request.getPreferredModel()));
+        int[] capacities = new int[drones.size()];
+        for (int i = 0; i < capacities.length; i++) {
+            capacities[i] = drones.get(i).getWeightLimit() - drones.get(i).getLoadedWeight();
+        }
+        int[] weights = new int[candidates.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = medicationDTOs.get(candidates.get(i)).getWeight();
+        }
+
+        int[] assignments = dispatchPlanner.plan(capacities, weights);
+
+        DroneAssignmentDTO[] droneAssignments = new DroneAssignmentDTO[drones.size()];
+        for (int i = 0; i < assignments.length; i++) {
+            int index = candidates.get(i);
+            if (assignments[i] == DispatchPlanner.UNASSIGNED) {
+                unassigned(plan, medicationDTOs, index, NO_DRONE_MESSAGE);
+                continue;
+            }
+            DroneAssignmentDTO droneAssignment = droneAssignments[assignments[i]];
+            if (droneAssignment == null) {
+                droneAssignment = droneAssignments[assignments[i]] = assignment(drones.get(assignments[i]));
+            }
+            MedicationDTO medicationDTO = medicationDTOs.get(index);
+            medicationDTO.setDroneId(droneAssignment.getDroneId());
+            droneAssignment.getMedications().add(medicationDTO);
+            droneAssignment.setWeight(droneAssignment.getWeight() + medicationDTO.getWeight());
+        }
+        for (DroneAssignmentDTO droneAssignment : droneAssignments) {
+            if (droneAssignment != null) {
+                plan.getAssignments().add(droneAssignment);
+            }
+        }
+        plan.getUnassigned().sort(Comparator.comparingInt(UnassignedMedicationDTO::getIndex));
+        log.info("Planned " + (medicationDTOs.size() - plan.getUnassigned().size()) + " of "
+                + medicationDTOs.size() + " medications to " + plan.getAssignments().size() + " drones");
+        return plan;
+    }
+
+    private static Comparator<DroneDTO> preference(DroneModel preferredModel) {
+        return Comparator.comparing((DroneDTO drone) -> drone.getDroneModel() != preferredModel)
+                .thenComparing(DroneDTO::getBatteryCapacity, Comparator.reverseOrder())
+                .thenComparing(DroneDTO::getWeightLimit, Comparator.reverseOrder());
+    }
+
+    private static DroneAssignmentDTO assignment(DroneDTO drone) {
+        return DroneAssignmentDTO.builder()
+                .droneId(drone.getId())
+                .serialNumber(drone.getSerialNumber())
+                .droneModel(drone.getDroneModel())
+                .batteryCapacity(drone.getBatteryCapacity())
+                .weightLimit(drone.getWeightLimit())
+                .medications(new ArrayList<>())
+                .build();
+    }
+
+    private static void unassigned(DispatchPlanDTO plan, List<MedicationDTO> medicationDTOs, int index, String message) {
+        plan.getUnassigned().add(new UnassignedMedicationDTO(index, medicationDTOs.get(index).getName(), message));
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.LockStripeStatsDTO;
+import com.example.drones.enums.LoadingRejectionReason;
+import com.example.drones.exception.LoadingRejectedException;
+import com.example.drones.exception.RestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped per-drone locks: requests for the same drone are serialized in arrival order (fair locks),
+ * requests for drones on different stripes run in parallel. Wait time is recorded per stripe.
+ */
+@Slf4j
+@Component
+public class DroneLockManager {
+    private final ReentrantLock[] locks;
+    private final LongAdder[] acquisitions;
+    private final LongAdder[] waitNanos;
+    private final AtomicLong[] maxWaitNanos;
+    private final long timeoutMs;
+
+    public DroneLockManager(@Value("${drones.loading.lock.stripes:64}") int stripes,
+                            @Value("${drones.loading.lock.timeout-ms:30000}") long timeoutMs) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.locks = new ReentrantLock[size];
+        this.acquisitions = new LongAdder[size];
+        this.waitNanos = new LongAdder[size];
+        this.maxWaitNanos = new AtomicLong[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock(true);
+            acquisitions[i] = new LongAdder();
+            waitNanos[i] = new LongAdder();
+            maxWaitNanos[i] = new AtomicLong();
+        }
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Run action holding lock of drone stripe
+     *
+     * @param droneId drone id
+     * @param action  action
+     * @return action result
+     */
+    public <T> T withLock(Long droneId, Supplier<T> action) {
+        int stripe = stripe(droneId);
+        ReentrantLock lock = locks[stripe];
+        long start = System.nanoTime();
+        boolean locked;
+        try {
+            locked = lock.tryLock(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestException("Interrupted while waiting for Drone with id: " + droneId);
+        }
+        long waited = System.nanoTime() - start;
+        acquisitions[stripe].increment();
+        waitNanos[stripe].add(waited);
+        maxWaitNanos[stripe].accumulateAndGet(waited, Math::max);
+        if (!locked) {
+            throw new LoadingRejectedException(LoadingRejectionReason.BUSY,
+                    "Drone with id: " + droneId + " is busy, try again later");
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run action holding lock of drone stripe
+     *
+     * @param droneId drone id
+     * @param action  action
+     */
+    public void withLock(Long droneId, Runnable action) {
+        withLock(droneId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Number of stripes
+     *
+     * @return stripes count
+     */
+    public int getStripes() {
+        return locks.length;
+    }
+
+    /**
+     * Number of threads waiting for any stripe
+     *
+     * @return estimated queue length
+     */
+    public int getQueueLength() {
+        int queueLength = 0;
+        for (ReentrantLock lock : locks) {
+            queueLength += lock.getQueueLength();
+        }
+        return queueLength;
+    }
+
+    /**
+     * Get wait statistics of stripes which have been used
+     *
+     * @return stripes statistics
+     */
+    public List<LockStripeStatsDTO> getStats() {
+        List<LockStripeStatsDTO> stats = new ArrayList<>();
+        for (int stripe = 0; stripe < locks.length; stripe++) {
+            long count = acquisitions[stripe].sum();
+            if (count > 0) {
+                stats.add(new LockStripeStatsDTO(stripe, count, locks[stripe].getQueueLength(),
+                        TimeUnit.NANOSECONDS.toMicros(waitNanos[stripe].sum()),
+                        TimeUnit.NANOSECONDS.toMicros(maxWaitNanos[stripe].get())));
+            }
+        }
+        return stats;
+    }
+
+    int stripe(Long droneId) {
+        long hash = droneId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (locks.length - 1);
+    }
+}
@@ -1,23 +1,53 @@
 package com.example.drones.service;
 
+import com.example.drones.cache.DroneCaches;
+import com.example.drones.dto.BatterySampleDTO;
+import com.example.drones.dto.DroneBatchRegisterResultDTO;
 import com.example.drones.dto.DroneDTO;
+import com.example.drones.dto.DronePageDTO;
 import com.example.drones.dto.DroneRegisterDTO;
+import com.example.drones.dto.DroneRegisterErrorDTO;
+import com.example.drones.dto.DroneSummaryDTO;
+import com.example.drones.dto.FleetIndexCheckDTO;
+import com.example.drones.dto.LockStripeStatsDTO;
 import com.example.drones.dto.MedicationDTO;
+import com.example.drones.dto.MedicationSummaryDTO;
+import com.example.drones.enums.BatteryResolution;
+import com.example.drones.enums.DroneModel;
 import com.example.drones.enums.DroneState;
+import com.example.drones.enums.LoadingRejectionReason;
 import com.example.drones.exception.CheckException;
+import com.example.drones.exception.LoadingRejectedException;
 import com.example.drones.exception.RestException;
+import com.example.drones.index.DroneSnapshot;
+import com.example.drones.index.FleetIndex;
 import com.example.drones.mapping.DroneMapper;
+import com.example.drones.metrics.DroneMetrics;
 import com.example.drones.model.Drone;
 import com.example.drones.repository.DroneRepository;
+import com.example.drones.storage.MedicationImageStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 @Slf4j
@@ -28,10 +58,22 @@ public class DroneService {
     private static final int MIN_BATTERY_CAPACITY = 1;
     private static final int MAX_BATTERY_CAPACITY = 100;
     private static final int WEIGHT_LIMIT = 500;
+    private static final int REGISTER_BATCH_SIZE = 50;
+    private static final int CLAIM_ATTEMPTS = 5;
+    private static final long CLAIM_BACKOFF_MS = 10;
+    private static final int MAX_PAGE_SIZE = 1000;
 
     private final DroneMapper droneMapper;
     private final DroneRepository droneRepository;
     private final MedicationService medicationService;
+    private final MedicationImageStore medicationImageStore;
+    private final FleetIndex fleetIndex;
+    private final DroneLockManager droneLockManager;
+    private final DroneMetrics droneMetrics;
+    private final TelemetryService telemetryService;
+    private final BatteryHistoryService batteryHistoryService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * Register new Drone method.
@@ -46,15 +88,60 @@ public class DroneService {
         Drone newDrone = droneMapper.toEntity(droneRegisterDTO);
         newDrone.setDroneState(DroneState.IDLE);
         newDrone = droneRepository.save(newDrone);
+        fleetIndex.update(DroneSnapshot.of(newDrone));
         log.info("Added Drone with id: " + newDrone.getId());
 
         return droneMapper.toDTO(newDrone);
     }
 
     /**
-     * Non-blocking at all add medications to drone method. Stages:
-     * 1) check and parse files
-     * 2) set Drone state LOADING
+     * Register many new Drones. Drones are validated one by one and saved by chunks in JDBC batches,
+     * invalid drones are reported and don't abort the others.
+     *
+     * @param droneRegisterDTOs register DTOs, may be read lazily from request stream
+     * @return registered Drones and failures by item index
+     */
+    public DroneBatchRegisterResultDTO registerBatch(Iterator<DroneRegisterDTO> droneRegisterDTOs) {
+        log.info("Start batch registering new Drones");
+        DroneBatchRegisterResultDTO result = new DroneBatchRegisterResultDTO();
+        Set<String> serialNumbers = new HashSet<>();
+        List<Drone> chunk = new ArrayList<>(REGISTER_BATCH_SIZE);
+        List<Integer> chunkIndexes = new ArrayList<>(REGISTER_BATCH_SIZE);
+
+        for (int index = 0; hasNext(droneRegisterDTOs, index, result); index++) {
+            DroneRegisterDTO droneRegisterDTO;
+            try {
+                droneRegisterDTO = droneRegisterDTOs.next();
+                checkDroneRegisterDTO(droneRegisterDTO);
+            } catch (RuntimeException e) {
+                result.getFailed().add(new DroneRegisterErrorDTO(index, null, e.getMessage()));
+                continue;
+            }
+            String serialNumber = droneRegisterDTO.getSerialNumber();
+            if (serialNumber != null && !serialNumbers.add(serialNumber)) {
+                result.getFailed().add(new DroneRegisterErrorDTO(index, serialNumber,
+                        "Serial number is duplicated in batch"));
+                continue;
+            }
+
+            Drone newDrone = droneMapper.toEntity(droneRegisterDTO);
+            newDrone.setDroneState(DroneState.IDLE);
+            chunk.add(newDrone);
+            chunkIndexes.add(index);
+            if (chunk.size() == REGISTER_BATCH_SIZE) {
+                saveChunk(chunk, chunkIndexes, result);
+            }
+        }
+        saveChunk(chunk, chunkIndexes, result);
+
+        log.info("Added " + result.getRegistered().size() + " Drones, failed " + result.getFailed().size());
+        return result;
+    }
+
+    /**
+     * Synchronous add medications to drone method (see {@link LoadingJobService} for asynchronous one). Stages:
+     * 1) check and stream files to image store
+     * 2) wait for other loads of the same Drone, set Drone state LOADING
      * 3) check and add medications
      * 4) set Drone state LOADED
      *
@@ -65,101 +152,372 @@ public class DroneService {
         log.info("Start creating new Medication");
         checkMedicationRequestFiles(medicationDTOs, files);
 
-        Long droneId = medicationDTOs.get(0).getDroneId();
-        Drone drone = getDroneSafety(droneId);
         IntStream.range(0, medicationDTOs.size())
-                .forEach(i -> {
-                    try {
-                        medicationDTOs.get(i).setImage(files.get(i).getBytes());
-                    } catch (IOException e) {
-                        throw new RestException("Exception during reading file");
-                    }
+                .forEach(i -> medicationDTOs.get(i).setImageHash(storeImage(files.get(i))));
+        loadDrone(medicationDTOs);
+    }
+
+    /**
+     * Load drone with medications which images are already stored (stages 2-4 of adding medications)
+     *
+     * @param medicationDTOs medication DTOs with image hashes
+     */
+    public void loadDrone(List<MedicationDTO> medicationDTOs) {
+        Long droneId = medicationDTOs.get(0).getDroneId();
+        droneMetrics.timeLoading(() -> {
+            try {
+                droneLockManager.withLock(droneId, () -> {
+                    Drone drone = getDroneSafety(droneId);
+                    loadingDrone(drone);
+                    loadMedications(medicationDTOs, drone);
                 });
+            } catch (LoadingRejectedException e) {
+                droneMetrics.rejected(e.getReason());
+                throw e;
+            }
+            return null;
+        });
+    }
 
-        loadingDrone(drone);
-        loadMedications(medicationDTOs, drone);
+    /**
+     * Get wait statistics of per-drone loading locks
+     *
+     * @return lock stripes statistics
+     */
+    public List<LockStripeStatsDTO> getLoadingLockStats() {
+        return droneLockManager.getStats();
     }
 
     /**
-     * Get all medications of current Drone
+     * Get all medications of current Drone, cached until medications of the drone change
      *
      * @param droneId drone id
      * @return list of medications
      */
+    @Cacheable(DroneCaches.MEDICATIONS)
     public List<MedicationDTO> getAllDroneMedications(Long droneId) {
         log.info("Start getting all Medications for Drone with id: " + droneId);
-        Drone drone = getDroneSafety(droneId);
-        return medicationService.getAllDroneMedications(drone);
+        List<MedicationDTO> medications = medicationService.getAllDroneMedications(droneId);
+        if (medications.isEmpty()) {
+            checkDroneExists(droneId);
+        }
+        return medications;
+    }
+
+    /**
+     * Get summaries of all medications of current Drone, cached until medications of the drone change
+     *
+     * @param droneId drone id
+     * @return list of medication summaries
+     */
+    @Cacheable(DroneCaches.MEDICATION_SUMMARIES)
+    public List<MedicationSummaryDTO> getAllDroneMedicationSummaries(Long droneId) {
+        log.info("Start getting all Medication summaries for Drone with id: " + droneId);
+        List<MedicationSummaryDTO> summaries = medicationService.getAllDroneMedicationSummaries(droneId);
+        if (summaries.isEmpty()) {
+            checkDroneExists(droneId);
+        }
+        return summaries;
+    }
+
+    /**
+     * Get battery history of drone in one resolution tier
+     *
+     * @param droneId    drone id
+     * @param from       period start (inclusive), a day before end by default
+     * @param to         period end (exclusive), now by default
+     * @param resolution resolution tier
+     * @return samples ordered by time
+     */
+    public List<BatterySampleDTO> getBatteryHistory(Long droneId, LocalDateTime from, LocalDateTime to,
+                                                    BatteryResolution resolution) {
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        LocalDateTime start = from == null ? end.minusDays(1) : from;
+        List<BatterySampleDTO> samples = batteryHistoryService.getHistory(droneId, start, end, resolution);
+        if (samples.isEmpty()) {
+            checkDroneExists(droneId);
+        }
+        return samples;
+    }
+
+    /**
+     * Get page of drones matching filters in id order. Pages are sought by the last id of the previous one
+     * (keyset pagination), so deep pages cost the same as the first one.
+     *
+     * @param droneState      drone state or null for any
+     * @param droneModel      drone model or null for any
+     * @param minBatteryLevel battery level (inclusive) or null for any
+     * @param after           id of the last drone of the previous page or null for the first page
+     * @param limit           page size
+     * @return drones and id to request the next page after
+     */
+    public DronePageDTO getDrones(DroneState droneState, DroneModel droneModel, Integer minBatteryLevel,
+                                  Long after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new CheckException("Limit can't be more than " + MAX_PAGE_SIZE + " or less than 1");
+        }
+        if (minBatteryLevel != null && (minBatteryLevel < 0 || minBatteryLevel > MAX_BATTERY_CAPACITY)) {
+            throw new CheckException("Battery level can't be more than " + MAX_BATTERY_CAPACITY + " or less than 0");
+        }
+        // one extra drone tells whether there is the next page
+        List<DroneSummaryDTO> drones = droneRepository.findSummaries(droneState, droneModel, minBatteryLevel,
+                after, limit + 1);
+        if (drones.size() <= limit) {
+            return new DronePageDTO(drones, null);
+        }
+        List<DroneSummaryDTO> page = drones.subList(0, limit);
+        return new DronePageDTO(new ArrayList<>(page), page.get(limit - 1).getId());
     }
 
     /**
-     * Get all available drones
+     * Get all available drones from fleet index, highest battery first
      *
      * @return available drones
      */
     public List<DroneDTO> getAllAvailableDrones() {
-        return droneMapper.toDTOs(droneRepository.getAllAvailableDrones(MIN_BATTERY_LEVEL_TO_LOAD));
+        return droneMapper.snapshotsToDTOs(fleetIndex.findAvailable(MIN_BATTERY_LEVEL_TO_LOAD));
     }
 
     /**
-     * Check drone battery level
+     * Compare fleet index with database
+     *
+     * @return check result
+     */
+    public FleetIndexCheckDTO checkFleetIndex() {
+        return fleetIndex.check();
+    }
+
+    /**
+     * Check drone battery level: not flushed telemetry first, then fleet index, then database
      *
      * @param droneId drone id
      * @return battery level
      */
     public Integer getDroneBatteryLevel(Long droneId) {
         log.info("Check battery level for Drone with id: " + droneId);
-        return getDroneSafety(droneId).getBatteryCapacity();
+        return telemetryService.findBatteryLevel(droneId)
+                .or(() -> Optional.ofNullable(fleetIndex.get(droneId)).map(DroneSnapshot::getBatteryCapacity))
+                .or(() -> droneRepository.findBatteryCapacityById(droneId))
+                .orElseThrow(() -> new RestException("No drone found with id: " + droneId));
     }
 
     /**
-     * Set drone state to IDLE in transaction
+     * Set drone state to IDLE
      *
      * @param drone drone
      */
-    @Transactional
     void idleDrone(Drone drone) {
-        drone.setDroneState(DroneState.IDLE);
-        droneRepository.save(drone);
+        transitDrone(drone, DroneState.IDLE);
     }
 
     /**
-     * Check and set drone state to LOADIN in transaction
+     * Check and atomically claim IDLE drone for loading (set state to LOADING).
+     * Of concurrent claims on the same drone only one succeeds, without locks held between requests.
      *
      * @param drone drone
      */
-    @Transactional
     void loadingDrone(Drone drone) {
         checkDroneForLoading(drone);
+        if (claimDrone(drone) == 0) {
+            throw new LoadingRejectedException(LoadingRejectionReason.WRONG_STATE,
+                    "Drone with id: " + drone.getId() + " isn't available for loading");
+        }
+        droneMetrics.transition(drone.getDroneState(), DroneState.LOADING);
         drone.setDroneState(DroneState.LOADING);
-        droneRepository.save(drone);
+        fleetIndex.update(drone.getId(), snapshot -> snapshot.withDroneState(DroneState.LOADING));
     }
 
     /**
-     * Set drone state to LOADED in transaction
+     * Set drone state to LOADED
      *
      * @param drone drone
      */
-    @Transactional
     void loadedDrone(Drone drone) {
-        drone.setDroneState(DroneState.LOADED);
-        droneRepository.save(drone);
+        transitDrone(drone, DroneState.LOADED);
     }
 
     /**
-     * Loading meds transactional method
+     * Loading meds method, drone is returned to IDLE if meds can't be added
      *
      * @param medicationDTOs medication DTOs
      * @param drone          drone
      */
-    @Transactional
     void loadMedications(List<MedicationDTO> medicationDTOs, Drone drone) {
         try {
             medicationService.addMedications(medicationDTOs, drone);
-            loadedDrone(drone);
         } catch (CheckException e) {
+            throw idleDrone(drone, new RestException(e.getMessage()));
+        } catch (RuntimeException e) {
+            throw idleDrone(drone, e);
+        }
+        loadedDrone(drone);
+    }
+
+    /**
+     * Return drone to IDLE after failed loading, rollback failure is attached to the loading failure
+     *
+     * @param drone   drone
+     * @param failure loading failure
+     * @return loading failure to throw
+     */
+    private RuntimeException idleDrone(Drone drone, RuntimeException failure) {
+        try {
             idleDrone(drone);
-            throw new RestException(e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Can't return Drone with id: " + drone.getId() + " to IDLE after failed loading", e);
+            failure.addSuppressed(e);
+        }
+        return failure;
+    }
+
+    /**
+     * Claim drone by conditional update, retry with backoff if row lock can't be acquired.
+     * Claim is written to outbox in the same transaction.
+     *
+     * @param drone drone
+     * @return number of updated rows, 0 if drone isn't IDLE or battery is low
+     */
+    private int claimDrone(Drone drone) {
+        Long droneId = drone.getId();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Integer claimed = transactionTemplate.execute(status -> {
+                    int updated = droneRepository.claimForLoading(droneId, MIN_BATTERY_LEVEL_TO_LOAD);
+                    if (updated > 0) {
+                        outboxService.stateChanged(droneId, DroneState.IDLE, DroneState.LOADING,
+                                drone.getBatteryCapacity());
+                    }
+                    return updated;
+                });
+                return claimed == null ? 0 : claimed;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt == CLAIM_ATTEMPTS) {
+                    throw new LoadingRejectedException(LoadingRejectionReason.BUSY,
+                            "Drone with id: " + droneId + " is busy, try again later");
+                }
+                log.info("Retry claim of Drone with id: " + droneId + ", attempt: " + attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    /**
+     * Sleep before next attempt: exponential delay with jitter
+     *
+     * @param attempt failed attempt number
+     */
+    private void backoff(int attempt) {
+        long delay = CLAIM_BACKOFF_MS << (attempt - 1);
+        try {
+            Thread.sleep(delay + ThreadLocalRandom.current().nextLong(delay));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RestException("Interrupted during claim of Drone");
+        }
+    }
+
+    /**
+     * Move drone from its current state to the new one by conditional update, transition is written to outbox
+     * in the same transaction
+     *
+     * @param drone drone
+     * @param to    new state
+     */
+    private void transitDrone(Drone drone, DroneState to) {
+        // database keeps microseconds, so history sample and persisted change time are equal
+        LocalDateTime updatedAt = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        Boolean transited = transactionTemplate.execute(status -> {
+            if (droneRepository.updateDroneState(drone.getId(), drone.getDroneState(), to, updatedAt) == 0) {
+                return false;
+            }
+            outboxService.stateChanged(drone.getId(), drone.getDroneState(), to, drone.getBatteryCapacity());
+            return true;
+        });
+        if (!Boolean.TRUE.equals(transited)) {
+            throw new RestException("Drone with id: " + drone.getId() + " isn't in state " + drone.getDroneState());
+        }
+        droneMetrics.transition(drone.getDroneState(), to);
+        drone.setDroneState(to);
+        fleetIndex.update(drone.getId(), snapshot -> snapshot
+                .withDroneState(to)
+                .withLoadedWeight(drone.getLoadedWeight()));
+        batteryHistoryService.record(drone.getId(), drone.getBatteryCapacity(), updatedAt);
+    }
+
+    /**
+     * Check if there is next register DTO, stream read failure is reported and stops the batch
+     */
+    private boolean hasNext(Iterator<DroneRegisterDTO> droneRegisterDTOs, int index, DroneBatchRegisterResultDTO result) {
+        try {
+            return droneRegisterDTOs.hasNext();
+        } catch (RuntimeException e) {
+            result.getFailed().add(new DroneRegisterErrorDTO(index, null, e.getMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * Save chunk of new drones in one JDBC batch skipping already registered serial numbers, then clear chunk.
+     * If a serial number is registered concurrently after the check, the batch is rolled back and drones
+     * are saved one by one, so only conflicting drones are reported.
+     */
+    private void saveChunk(List<Drone> chunk, List<Integer> chunkIndexes, DroneBatchRegisterResultDTO result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> existing = new HashSet<>(droneRepository.findExistingSerialNumbers(chunk.stream()
+                .map(Drone::getSerialNumber)
+                .collect(Collectors.toList())));
+        List<Drone> newDrones = new ArrayList<>(chunk.size());
+        List<Integer> newIndexes = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Drone drone = chunk.get(i);
+            if (existing.contains(drone.getSerialNumber())) {
+                result.getFailed().add(alreadyRegistered(chunkIndexes.get(i), drone));
+            } else {
+                newDrones.add(drone);
+                newIndexes.add(chunkIndexes.get(i));
+            }
+        }
+
+        try {
+            droneRepository.saveAll(newDrones).forEach(drone -> registered(drone, result));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Chunk of " + newDrones.size() + " Drones conflicts with concurrent registration, "
+                    + "saving one by one");
+            for (int i = 0; i < newDrones.size(); i++) {
+                try {
+                    registered(droneRepository.save(newDrones.get(i)), result);
+                } catch (DataIntegrityViolationException conflict) {
+                    result.getFailed().add(alreadyRegistered(newIndexes.get(i), newDrones.get(i)));
+                }
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    private void registered(Drone drone, DroneBatchRegisterResultDTO result) {
+        fleetIndex.update(DroneSnapshot.of(drone));
+        result.getRegistered().add(droneMapper.toDTO(drone));
+    }
+
+    private static DroneRegisterErrorDTO alreadyRegistered(int index, Drone drone) {
+        return new DroneRegisterErrorDTO(index, drone.getSerialNumber(),
+                "Drone with serial number: " + drone.getSerialNumber() + " is already registered");
+    }
+
+    /**
+     * Stream file content to image store
+     *
+     * @param file MultipartFile
+     * @return image hash
+     */
+    private String storeImage(MultipartFile file) {
+        try (InputStream content = file.getInputStream()) {
+            return medicationImageStore.store(content);
+        } catch (IOException e) {
+            throw new RestException("Exception during reading file");
         }
     }
 
@@ -174,6 +532,17 @@ public class DroneService {
                 .orElseThrow(() -> new RestException("No drone found with id: " + droneId));
     }
 
+    /**
+     * Check drone exists without loading it or throw Exception
+     *
+     * @param droneId drone id
+     */
+    private void checkDroneExists(Long droneId) {
+        if (!droneRepository.existsById(droneId)) {
+            throw new RestException("No drone found with id: " + droneId);
+        }
+    }
+
     /**
      * Check Drone register DTO
      *
@@ -196,7 +565,7 @@ public class DroneService {
      * @param medicationDTOs medication DTOs
      * @param files          MultipartFiles
      */
-    private void checkMedicationRequestFiles(List<MedicationDTO> medicationDTOs, List<MultipartFile> files) {
+    void checkMedicationRequestFiles(List<MedicationDTO> medicationDTOs, List<MultipartFile> files) {
         if (CollectionUtils.isEmpty(medicationDTOs) || CollectionUtils.isEmpty(files)) {
             throw new CheckException("Medications haven't been provided");
         }
@@ -212,10 +581,12 @@ public class DroneService {
      */
     private void checkDroneForLoading(Drone drone) {
         if (drone.getDroneState() != DroneState.IDLE) {
-            throw new RestException("Drone with id: " + drone.getId() + " isn't available for loading");
+            throw new LoadingRejectedException(LoadingRejectionReason.WRONG_STATE,
+                    "Drone with id: " + drone.getId() + " isn't available for loading");
         }
         if (drone.getBatteryCapacity() < MIN_BATTERY_LEVEL_TO_LOAD) {
-            throw new RestException("Drone can't be loaded with medications with less than " + MIN_BATTERY_LEVEL_TO_LOAD + "% battery");
+            throw new LoadingRejectedException(LoadingRejectionReason.LOW_BATTERY,
+                    "Drone can't be loaded with medications with less than " + MIN_BATTERY_LEVEL_TO_LOAD + "% battery");
         }
     }
 }
@@ -0,0 +1,159 @@
+package com.example.drones.service;
+
+import com.example.drones.model.AbstractBaseEntity;
+import com.example.drones.model.Drone;
+import com.example.drones.repository.DroneRepository;
+import com.example.drones.repository.MedicationRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * NDJSON export of all drones, then all medications, one record per line with "type" field.
+ * Rows are read by forward-only streams with JDBC fetch size, every drone is detached once written,
+ * medications are read as records and records are written by Jackson streaming generator, so memory use
+ * doesn't depend on fleet size.
+ */
+@Slf4j
+@Service
+public class ExportService {
+    static final String DRONE_TYPE = "drone";
+    static final String MEDICATION_TYPE = "medication";
+
+    private final DroneRepository droneRepository;
+    private final MedicationRepository medicationRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long timeoutMs;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ExportService(DroneRepository droneRepository,
+                         MedicationRepository medicationRepository,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${drones.export.timeout-ms:3600000}") long timeoutMs) {
+        this.droneRepository = droneRepository;
+        this.medicationRepository = medicationRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Task writing all drones and medications to response body asynchronously, limited by export timeout
+     * instead of default request timeout
+     *
+     * @param out response body
+     * @return asynchronous export task
+     */
+    public WebAsyncTask<Void> exportFleetTask(OutputStream out) {
+        return new WebAsyncTask<>(timeoutMs, () -> {
+            exportFleet(out);
+            return null;
+        });
+    }
+
+    /**
+     * Write all drones and medications to stream, stream isn't closed
+     *
+     * @param out output stream
+     * @throws IOException if stream can't be written
+     */
+    public void exportFleet(OutputStream out) throws IOException {
+        log.info("Start fleet export");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // records are separated by new lines only, default root separator is a space
+            generator.setRootValueSeparator(null);
+            long[] counts = readOnlyTransaction.execute(status -> new long[]{
+                    writeDrones(generator), writeMedications(generator)});
+            log.info("Exported " + counts[0] + " Drones and " + counts[1] + " Medications");
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long writeDrones(JsonGenerator generator) {
+        long count = 0;
+        try (Stream<Drone> drones = droneRepository.streamAll()) {
+            for (Iterator<Drone> iterator = drones.iterator(); iterator.hasNext(); count++) {
+                Drone drone = iterator.next();
+                generator.writeStartObject();
+                generator.writeStringField("type", DRONE_TYPE);
+                generator.writeNumberField("id", drone.getId());
+                generator.writeStringField("serialNumber", drone.getSerialNumber());
+                writeEnumField(generator, "droneModel", drone.getDroneModel());
+                generator.writeNumberField("weightLimit", drone.getWeightLimit());
+                generator.writeNumberField("batteryCapacity", drone.getBatteryCapacity());
+                writeEnumField(generator, "droneState", drone.getDroneState());
+                generator.writeNumberField("loadedWeight", drone.getLoadedWeight());
+                writeAuditFields(generator, drone);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                entityManager.detach(drone);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private long writeMedications(JsonGenerator generator) {
+        long count = 0;
+        try (Stream<MedicationExportRecord> medications = medicationRepository.streamExportRecords()) {
+            for (Iterator<MedicationExportRecord> iterator = medications.iterator(); iterator.hasNext(); count++) {
+                MedicationExportRecord medication = iterator.next();
+                generator.writeStartObject();
+                generator.writeStringField("type", MEDICATION_TYPE);
+                generator.writeNumberField("id", medication.getId());
+                generator.writeStringField("name", medication.getName());
+                generator.writeNumberField("weight", medication.getWeight());
+                generator.writeStringField("code", medication.getCode());
+                generator.writeStringField("imageHash", medication.getImageHash());
+                generator.writeFieldName("droneId");
+                if (medication.getDroneId() == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeNumber(medication.getDroneId());
+                }
+                writeTimeField(generator, "createdAt", medication.getCreatedAt());
+                writeTimeField(generator, "updatedAt", medication.getUpdatedAt());
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return count;
+    }
+
+    private static void writeEnumField(JsonGenerator generator, String name, Enum<?> value) throws IOException {
+        generator.writeStringField(name, value == null ? null : value.name());
+    }
+
+    private static void writeAuditFields(JsonGenerator generator, AbstractBaseEntity entity) throws IOException {
+        writeTimeField(generator, "createdAt", entity.getCreatedAt());
+        writeTimeField(generator, "updatedAt", entity.getUpdatedAt());
+    }
+
+    private static void writeTimeField(JsonGenerator generator, String name, LocalDateTime value) throws IOException {
+        generator.writeStringField(name, value == null ? null : value.toString());
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.DroneEventDTO;
+import com.example.drones.enums.DroneEventType;
+import com.example.drones.enums.DroneModel;
+import com.example.drones.enums.DroneState;
+import com.example.drones.index.DroneSnapshot;
+import com.example.drones.index.FleetChangeEvent;
+import com.example.drones.index.FleetIndex;
+import com.example.drones.mapping.DroneMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Server-Sent Events stream of fleet changes. Every subscriber gets a snapshot of matching drones first,
+ * then state and battery changes from fleet index. Changes are queued per subscriber in a bounded buffer
+ * and sent by a small pool, so a slow client never blocks drone writes: on buffer overflow its oldest queued
+ * changes are dropped and a fresh snapshot is sent before the remaining ones. Changes are published while
+ * the index entry of the drone is locked, so snapshot is read by {@link FleetIndex#findAllPublished}: a dropped
+ * change may not be stored yet when it is dropped, but it is stored when the drone is read.
+ */
+@Slf4j
+@Service
+public class FleetStreamService {
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String CHANGE_EVENT = "change";
+
+    private final FleetIndex fleetIndex;
+    private final DroneMapper droneMapper;
+    private final Executor executor;
+    private final int bufferSize;
+    private final long timeoutMs;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public FleetStreamService(FleetIndex fleetIndex,
+                              DroneMapper droneMapper,
+                              @Value("${drones.stream.executor.threads:2}") int threads,
+                              @Value("${drones.stream.buffer-size:256}") int bufferSize,
+                              @Value("${drones.stream.timeout-ms:1800000}") long timeoutMs) {
+        this(fleetIndex, droneMapper, newExecutor(threads), bufferSize, timeoutMs);
+    }
+
+    FleetStreamService(FleetIndex fleetIndex,
+                       DroneMapper droneMapper,
+                       Executor executor,
+                       int bufferSize,
+                       long timeoutMs) {
+        this.fleetIndex = fleetIndex;
+        this.droneMapper = droneMapper;
+        this.executor = executor;
+        this.bufferSize = bufferSize;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Subscribe to fleet changes
+     *
+     * @param states drone states to stream, all states if empty
+     * @param models drone models to stream, all models if empty
+     * @return event stream
+     */
+    public SseEmitter subscribe(Set<DroneState> states, Set<DroneModel> models) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        subscribe(emitter, filter(states, models));
+        return emitter;
+    }
+
+    void subscribe(SseEmitter emitter, Predicate<DroneSnapshot> filter) {
+        Subscriber subscriber = new Subscriber(emitter, filter, bufferSize);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        // subscribed before the first snapshot is read, so no change between them is lost
+        subscribers.add(subscriber);
+        schedule(subscriber);
+    }
+
+    /**
+     * Queue fleet change to subscribers interested in the drone before or after change,
+     * so they also see drones leaving their filter
+     *
+     * @param event fleet change
+     */
+    @EventListener
+    public void onFleetChange(FleetChangeEvent event) {
+        DroneEventDTO droneEvent = null;
+        for (Subscriber subscriber : subscribers) {
+            if (!subscriber.filter.test(event.getCurrent())
+                    && (event.getPrevious() == null || !subscriber.filter.test(event.getPrevious()))) {
+                continue;
+            }
+            if (droneEvent == null) {
+                droneEvent = toEvent(event);
+            }
+            if (!subscriber.events.offer(droneEvent)) {
+                subscriber.resync.set(true);
+                // newest change is kept, queued changes are full drone states and are replayed after snapshot
+                do {
+                    subscriber.events.poll();
+                } while (!subscriber.events.offer(droneEvent));
+            }
+            schedule(subscriber);
+        }
+    }
+
+    /**
+     * Number of connected subscribers
+     *
+     * @return subscribers count
+     */
+    public int getSubscribersCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            do {
+                if (subscriber.resync.getAndSet(false)) {
+                    // queue isn't cleared: changes queued while snapshot is read may be missing in it
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name(SNAPSHOT_EVENT)
+                            .data(droneMapper.snapshotsToDTOs(fleetIndex.findAllPublished(subscriber.filter)),
+                                    MediaType.APPLICATION_JSON));
+                }
+                for (DroneEventDTO event = subscriber.events.poll(); event != null; event = subscriber.events.poll()) {
+                    subscriber.emitter.send(SseEmitter.event()
+                            .name(CHANGE_EVENT)
+                            .data(event, MediaType.APPLICATION_JSON));
+                }
+                subscriber.draining.set(false);
+                // changes queued between the last poll and the reset found draining set and weren't scheduled
+            } while ((subscriber.resync.get() || !subscriber.events.isEmpty())
+                    && subscriber.draining.compareAndSet(false, true));
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Fleet stream subscriber disconnected: " + e.getMessage());
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+        }
+    }
+
+    private static Predicate<DroneSnapshot> filter(Set<DroneState> states, Set<DroneModel> models) {
+        return snapshot -> (states == null || states.isEmpty() || states.contains(snapshot.getDroneState()))
+                && (models == null || models.isEmpty() || models.contains(snapshot.getDroneModel()));
+    }
+
+    private static DroneEventDTO toEvent(FleetChangeEvent event) {
+        DroneSnapshot previous = event.getPrevious();
+        DroneSnapshot current = event.getCurrent();
+        boolean stateChanged = previous == null || previous.getDroneState() != current.getDroneState();
+        return DroneEventDTO.builder()
+                .type(stateChanged ? DroneEventType.STATE : DroneEventType.BATTERY)
+                .droneId(current.getId())
+                .serialNumber(current.getSerialNumber())
+                .droneModel(current.getDroneModel())
+                .droneState(current.getDroneState())
+                .previousState(previous == null ? null : previous.getDroneState())
+                .batteryCapacity(current.getBatteryCapacity())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads,
+                runnable -> new Thread(runnable, "fleet-stream-" + counter.incrementAndGet()));
+    }
+
+    private static class Subscriber {
+        private final SseEmitter emitter;
+        private final Predicate<DroneSnapshot> filter;
+        private final BlockingQueue<DroneEventDTO> events;
+        /**
+         * Snapshot is sent on the next drain before queued changes, set on subscription and overflow
+         */
+        private final AtomicBoolean resync = new AtomicBoolean(true);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Predicate<DroneSnapshot> filter, int bufferSize) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.events = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
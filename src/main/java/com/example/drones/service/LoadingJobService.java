@@ -0,0 +1,239 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.LoadingJobDTO;
+import com.example.drones.dto.MedicationDTO;
+import com.example.drones.enums.LoadingJobStatus;
+import com.example.drones.exception.NotFoundException;
+import com.example.drones.exception.RestException;
+import com.example.drones.exception.ServiceUnavailableException;
+import com.example.drones.storage.MedicationImageStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asynchronous loading of medications to drones. Request thread only spools uploaded files to disk,
+ * other stages (validate, store images, load drone) run as a job on bounded executor.
+ */
+@Slf4j
+@Service
+public class LoadingJobService {
+    private final DroneService droneService;
+    private final MedicationService medicationService;
+    private final MedicationImageStore medicationImageStore;
+    private final Executor executor;
+    private final Path spoolPath;
+    private final Duration retention;
+    private final Map<String, LoadingJob> jobs = new ConcurrentHashMap<>();
+
+    @Autowired
+    public LoadingJobService(DroneService droneService,
+                             MedicationService medicationService,
+                             MedicationImageStore medicationImageStore,
+                             @Value("${drones.loading.executor.threads:4}") int threads,
+                             @Value("${drones.loading.executor.queue-capacity:100}") int queueCapacity,
+                             @Value("${drones.loading.spool.path}") Path spoolPath,
+                             @Value("${drones.loading.jobs.retention-ms:600000}") long retentionMs) {
+        this(droneService, medicationService, medicationImageStore,
+                newExecutor(threads, queueCapacity), spoolPath, Duration.ofMillis(retentionMs));
+    }
+
+    LoadingJobService(DroneService droneService,
+                      MedicationService medicationService,
+                      MedicationImageStore medicationImageStore,
+                      Executor executor,
+                      Path spoolPath,
+                      Duration retention) {
+        this.droneService = droneService;
+        this.medicationService = medicationService;
+        this.medicationImageStore = medicationImageStore;
+        this.executor = executor;
+        this.spoolPath = spoolPath;
+        this.retention = retention;
+    }
+
+    /**
+     * Spool files and submit loading job. Stages of the job:
+     * 1) VALIDATING - check medications formats, so images of invalid manifest aren't stored
+     * 2) PARSING - stream spooled files to image store
+     * 3) LOADING - wait for other loads of the same Drone, claim it, add medications and set it LOADED
+     *
+     * @param medicationDTOs medication DTOs
+     * @param files          MultipartFiles to DTOs
+     * @return queued job
+     */
+    public LoadingJobDTO submit(List<MedicationDTO> medicationDTOs, List<MultipartFile> files) {
+        droneService.checkMedicationRequestFiles(medicationDTOs, files);
+        LoadingJob job = new LoadingJob(UUID.randomUUID().toString(), medicationDTOs.get(0).getDroneId(),
+                medicationDTOs.size());
+        Path jobSpool = spoolPath.resolve(job.id);
+        List<Path> spooled = spool(files, jobSpool);
+
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, medicationDTOs, spooled, jobSpool));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteSpool(jobSpool);
+            throw new ServiceUnavailableException("Loading queue is full, try again later");
+        }
+        log.info("Queued loading job " + job.id + " for Drone with id: " + job.droneId);
+        return job.toDTO();
+    }
+
+    /**
+     * Get loading job by id
+     *
+     * @param jobId job id
+     * @return job
+     */
+    public LoadingJobDTO getJob(String jobId) {
+        LoadingJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new NotFoundException("No loading job found with id: " + jobId);
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * Scheduler to forget finished jobs after retention period
+     */
+    @Scheduled(fixedRateString = "${drones.loading.jobs.eviction-rate-ms:60000}")
+    public void evictFinishedJobs() {
+        LocalDateTime expired = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.updatedAt.isBefore(expired));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private void run(LoadingJob job, List<MedicationDTO> medicationDTOs, List<Path> spooled, Path jobSpool) {
+        try {
+            job.stage(LoadingJobStatus.VALIDATING);
+            medicationService.checkMedicationFormats(medicationDTOs);
+
+            job.stage(LoadingJobStatus.PARSING);
+            for (int i = 0; i < medicationDTOs.size(); i++) {
+                try (InputStream content = Files.newInputStream(spooled.get(i))) {
+                    medicationDTOs.get(i).setImageHash(medicationImageStore.store(content));
+                }
+            }
+
+            job.stage(LoadingJobStatus.LOADING);
+            droneService.loadDrone(medicationDTOs);
+
+            job.stage(LoadingJobStatus.COMPLETED);
+            log.info("Completed loading job " + job.id);
+        } catch (IOException e) {
+            job.fail("Exception during reading file");
+            log.error("Loading job " + job.id + " failed", e);
+        } catch (RuntimeException e) {
+            job.fail(e.getMessage());
+            log.warn("Loading job " + job.id + " failed: " + e.getMessage());
+        } finally {
+            deleteSpool(jobSpool);
+        }
+    }
+
+    private List<Path> spool(List<MultipartFile> files, Path jobSpool) {
+        List<Path> spooled = new ArrayList<>(files.size());
+        try {
+            Files.createDirectories(jobSpool);
+            for (int i = 0; i < files.size(); i++) {
+                Path path = jobSpool.resolve(String.valueOf(i));
+                files.get(i).transferTo(path);
+                spooled.add(path);
+            }
+        } catch (IOException e) {
+            deleteSpool(jobSpool);
+            throw new RestException("Exception during reading file");
+        }
+        return spooled;
+    }
+
+    private void deleteSpool(Path jobSpool) {
+        try {
+            FileSystemUtils.deleteRecursively(jobSpool);
+        } catch (IOException e) {
+            log.warn("Can't delete spooled files " + jobSpool, e);
+        }
+    }
+
+    private static ExecutorService newExecutor(int threads, int queueCapacity) {
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> new Thread(runnable, "drone-loading-" + counter.incrementAndGet()),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static class LoadingJob {
+        private final String id;
+        private final Long droneId;
+        private final int medicationsCount;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile LoadingJobStatus status = LoadingJobStatus.QUEUED;
+        private volatile String error;
+        private volatile LocalDateTime updatedAt = createdAt;
+
+        LoadingJob(String id, Long droneId, int medicationsCount) {
+            this.id = id;
+            this.droneId = droneId;
+            this.medicationsCount = medicationsCount;
+        }
+
+        void stage(LoadingJobStatus status) {
+            this.updatedAt = LocalDateTime.now();
+            this.status = status;
+        }
+
+        void fail(String error) {
+            this.error = error;
+            stage(LoadingJobStatus.FAILED);
+        }
+
+        boolean isFinished() {
+            return status == LoadingJobStatus.COMPLETED || status == LoadingJobStatus.FAILED;
+        }
+
+        LoadingJobDTO toDTO() {
+            return LoadingJobDTO.builder()
+                    .id(id)
+                    .droneId(droneId)
+                    .medicationsCount(medicationsCount)
+                    .status(status)
+                    .error(error)
+                    .createdAt(createdAt)
+                    .updatedAt(updatedAt)
+                    .build();
+        }
+    }
+}
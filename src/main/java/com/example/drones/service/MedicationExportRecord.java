@@ -0,0 +1,20 @@
+package com.example.drones.service;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Medication row for export, with drone id read as a column, so no drone is loaded or proxied
+ */
+@Value
+public class MedicationExportRecord {
+    Long id;
+    String name;
+    int weight;
+    String code;
+    String imageHash;
+    Long droneId;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+}
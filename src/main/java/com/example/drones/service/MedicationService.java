@@ -1,17 +1,28 @@
 package com.example.drones.service;
 
 import com.example.drones.dto.MedicationDTO;
+import com.example.drones.dto.MedicationSummaryDTO;
+import com.example.drones.enums.LoadingRejectionReason;
 import com.example.drones.exception.CheckException;
+import com.example.drones.exception.NotFoundException;
 import com.example.drones.mapping.MedicationMapper;
+import com.example.drones.metrics.DroneMetrics;
 import com.example.drones.model.Drone;
 import com.example.drones.model.Medication;
+import com.example.drones.repository.DroneRepository;
 import com.example.drones.repository.MedicationRepository;
+import com.example.drones.storage.MedicationImageStore;
+import com.example.drones.storage.StoredImage;
+import com.example.drones.validation.MedicationValidator;
+import com.example.drones.validation.MedicationViolation;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -19,29 +30,41 @@ import java.util.List;
 public class MedicationService {
     private final MedicationMapper medicationMapper;
     private final MedicationRepository medicationRepository;
+    private final DroneRepository droneRepository;
+    private final MedicationImageStore medicationImageStore;
+    private final MedicationValidator medicationValidator;
+    private final DroneMetrics droneMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
 
     /**
-     * Transactional check and add meds method.
-     * (Added Thread.sleep() in comments because it must be heavy operation, used for testing)
+     * Transactional check and add meds method. Drone's loaded weight is increased in the same transaction
+     * by conditional update, so medications are never added over weight limit. Loading is written to outbox.
      *
      * @param medicationDTOs meds dto
      * @param drone          drone
      */
     @Transactional
     public List<MedicationDTO> addMedications(List<MedicationDTO> medicationDTOs, Drone drone) {
-        //todo: delete, must be heavy operation
-//        try {
-//            Thread.sleep(medicationDTOs.size() * 10000);
-//        } catch (InterruptedException e) {
-//            e.printStackTrace();
-//        }
         checkMedication(medicationDTOs, drone);
 
+        int weight = medicationDTOs.stream()
+                .mapToInt(MedicationDTO::getWeight)
+                .sum();
+        if (droneRepository.addLoadedWeight(drone.getId(), weight) == 0) {
+            throwViolations(List.of(new MedicationViolation(MedicationViolation.MANIFEST,
+                    MedicationValidator.WEIGHT_MESSAGE)));
+        }
+
         List<Medication> medications = medicationMapper.toEntities(medicationDTOs);
         medications.forEach(medication -> medication.setDrone(drone));
 
         medications = medicationRepository.saveAll(medications);
-        log.info("Added " + medicationDTOs.size() + " Medications to Drone with id: " + drone.getId());
+        drone.setLoadedWeight(drone.getLoadedWeight() + weight);
+        outboxService.medicationsLoaded(drone.getId(), drone.getLoadedWeight(), medications);
+        eventPublisher.publishEvent(new MedicationsChangedEvent(drone.getId()));
+        log.info("Added " + medicationDTOs.size() + " Medications to Drone with id: " + drone.getId()
+                + ", loaded weight: " + drone.getLoadedWeight());
 
         return medicationMapper.toDTOs(medications);
     }
@@ -49,33 +72,66 @@ public class MedicationService {
     /**
      * Get all medications of current Drone
      *
-     * @param drone drone
+     * @param droneId drone id
      * @return list of medications
      */
-    public List<MedicationDTO> getAllDroneMedications(Drone drone) {
-        return medicationMapper.toDTOs(drone.getMedications());
+    public List<MedicationDTO> getAllDroneMedications(Long droneId) {
+        return medicationMapper.toDTOs(medicationRepository.findAllByDroneIdOrderById(droneId));
+    }
+
+    /**
+     * Get summaries of all medications of current Drone, image isn't read
+     *
+     * @param droneId drone id
+     * @return list of medication summaries
+     */
+    public List<MedicationSummaryDTO> getAllDroneMedicationSummaries(Long droneId) {
+        return medicationRepository.findSummariesByDroneId(droneId);
+    }
+
+    /**
+     * Get stored image of medication
+     *
+     * @param medicationId medication id
+     * @return stored image
+     */
+    public StoredImage getMedicationImage(Long medicationId) {
+        String hash = medicationRepository.findImageHashById(medicationId)
+                .orElseThrow(() -> new NotFoundException("No image found for medication with id: " + medicationId));
+        return medicationImageStore.find(hash)
+                .map(path -> new StoredImage(hash, path))
+                .orElseThrow(() -> new NotFoundException("No image found for medication with id: " + medicationId));
     }
 
     /**
-     * Check meds DTOs (regex on name, regex on code, total weight)
+     * Check meds DTOs (name, code, total weight against capacity left on drone), all violations are reported at once
      *
      * @param medicationDTOs meds DTOs
      * @param drone          drone
      */
-    private void checkMedication(List<MedicationDTO> medicationDTOs, Drone drone) {
-        medicationDTOs.forEach(medicationDTO -> {
-            if (!medicationDTO.getName().matches("^[a-zA-Z0-9_-]*$")) {
-                throw new CheckException("Only letters, numbers, underscore, dash available for name");
-            }
-            if (!medicationDTO.getCode().matches("^[A-Z0-9_]*$")) {
-                throw new CheckException("Only upper case letters, underscore, numbers available for code");
-            }
-        });
-        Integer medWeight = medicationDTOs.stream()
-                .map(MedicationDTO::getWeight)
-                .reduce(0, Integer::sum);
-        if (medWeight > drone.getWeightLimit()) {
-            throw new CheckException("Maximum weight capacity for drone has been reached");
+    void checkMedication(List<MedicationDTO> medicationDTOs, Drone drone) {
+        throwViolations(medicationValidator.validate(medicationDTOs, drone.getWeightLimit() - drone.getLoadedWeight()));
+    }
+
+    /**
+     * Check meds DTOs formats (name, code), drone isn't needed
+     *
+     * @param medicationDTOs meds DTOs
+     */
+    public void checkMedicationFormats(List<MedicationDTO> medicationDTOs) {
+        throwViolations(medicationValidator.validateFormats(medicationDTOs));
+    }
+
+    private void throwViolations(List<MedicationViolation> violations) {
+        if (!violations.isEmpty()) {
+            boolean overweight = violations.stream()
+                    .anyMatch(violation -> violation.getIndex() == MedicationViolation.MANIFEST);
+            droneMetrics.rejected(overweight
+                    ? LoadingRejectionReason.OVERWEIGHT : LoadingRejectionReason.INVALID_MEDICATION);
+            throw new CheckException(violations.stream()
+                    .map(MedicationViolation::getMessage)
+                    .distinct()
+                    .collect(Collectors.joining("; ")));
         }
     }
 }
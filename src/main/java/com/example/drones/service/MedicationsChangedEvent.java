@@ -0,0 +1,11 @@
+package com.example.drones.service;
+
+import lombok.Value;
+
+/**
+ * Medications of drone were added or removed, published inside the writing transaction
+ */
+@Value
+public class MedicationsChangedEvent {
+    Long droneId;
+}
@@ -0,0 +1,91 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.DroneStateChangedDTO;
+import com.example.drones.dto.MedicationSummaryDTO;
+import com.example.drones.dto.MedicationsLoadedDTO;
+import com.example.drones.enums.DroneState;
+import com.example.drones.enums.OutboxEventType;
+import com.example.drones.model.Medication;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes drone events to outbox table in the caller's transaction, so an event is stored if and only if
+ * its change is committed. Events are published from outbox by {@link com.example.drones.outbox.OutboxRelay}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+    private static final int INSERT_BATCH_SIZE = 50;
+    private static final String INSERT_EVENT = "insert into outbox_events (drone_id, event_type, payload, created_at) "
+            + "values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Append state transition of drone
+     *
+     * @param droneId         drone id
+     * @param from            previous state
+     * @param to              new state
+     * @param batteryCapacity battery level
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void stateChanged(Long droneId, DroneState from, DroneState to, int batteryCapacity) {
+        statesChanged(List.of(new DroneStateChangedDTO(droneId, from, to, batteryCapacity)));
+    }
+
+    /**
+     * Append state transitions of drones in JDBC batches
+     *
+     * @param changes state transitions
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void statesChanged(List<DroneStateChangedDTO> changes) {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_EVENT, changes, INSERT_BATCH_SIZE, (ps, change) -> {
+            ps.setLong(1, change.getDroneId());
+            ps.setString(2, OutboxEventType.STATE_CHANGED.name());
+            ps.setString(3, toJson(change));
+            ps.setTimestamp(4, createdAt);
+        });
+    }
+
+    /**
+     * Append medications loaded to drone
+     *
+     * @param droneId      drone id
+     * @param loadedWeight loaded weight of drone after loading
+     * @param medications  saved medications
+     */
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void medicationsLoaded(Long droneId, int loadedWeight, List<Medication> medications) {
+        List<MedicationSummaryDTO> summaries = medications.stream()
+                .map(medication -> new MedicationSummaryDTO(medication.getId(), medication.getName(),
+                        medication.getWeight(), medication.getCode(), droneId))
+                .collect(Collectors.toList());
+        jdbcTemplate.update(INSERT_EVENT, droneId, OutboxEventType.MEDICATIONS_LOADED.name(),
+                toJson(new MedicationsLoadedDTO(droneId, loadedWeight, summaries)),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Can't serialize outbox payload " + payload, e);
+        }
+    }
+}
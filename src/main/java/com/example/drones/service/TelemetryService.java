@@ -0,0 +1,157 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.BatteryReadingDTO;
+import com.example.drones.dto.TelemetryErrorDTO;
+import com.example.drones.dto.TelemetryResultDTO;
+import com.example.drones.index.FleetIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Battery telemetry of drones. Readings are coalesced per drone in memory (only the latest one is kept)
+ * and periodically flushed to database in one JDBC batch, so write rate depends on fleet size, not on report rate.
+ * Time of the last flushed reading is kept per drone, so a late reading never overwrites a newer flushed one.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TelemetryService {
+    private static final int MIN_BATTERY_LEVEL = 0;
+    private static final int MAX_BATTERY_LEVEL = 100;
+    private static final int FLUSH_BATCH_SIZE = 50;
+    private static final String STALE_MESSAGE = "Reading is older than the last applied one";
+    private static final String UPDATE_BATTERY = "update drones set battery_capacity = ?, updated_at = ?, "
+            + "version = version + 1 where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FleetIndex fleetIndex;
+    private final ConcurrentHashMap<Long, BatteryReadingDTO> buffer = new ConcurrentHashMap<>();
+    /**
+     * Time of the last flushed reading by drone id, changed only inside compute of the drone's buffer entry
+     */
+    private final Map<Long, LocalDateTime> applied = new ConcurrentHashMap<>();
+
+    /**
+     * Accept battery readings, readings of unknown drones, with invalid battery level or older than
+     * the last flushed reading of the same drone are rejected, readings older than the buffered one are ignored
+     *
+     * @param readings battery readings
+     * @return number of accepted readings and rejected ones by index
+     */
+    public TelemetryResultDTO submit(List<BatteryReadingDTO> readings) {
+        TelemetryResultDTO result = new TelemetryResultDTO();
+        LocalDateTime now = LocalDateTime.now();
+        for (int index = 0; index < readings.size(); index++) {
+            BatteryReadingDTO reading = readings.get(index);
+            String error = checkReading(reading);
+            if (error != null) {
+                result.getRejected().add(new TelemetryErrorDTO(index, reading.getDroneId(), error));
+                continue;
+            }
+            BatteryReadingDTO buffered = new BatteryReadingDTO(reading.getDroneId(), reading.getBattery(),
+                    reading.getTimestamp() == null ? now : reading.getTimestamp());
+            if (!bufferReading(buffered)) {
+                result.getRejected().add(new TelemetryErrorDTO(index, reading.getDroneId(), STALE_MESSAGE));
+                continue;
+            }
+            result.setAccepted(result.getAccepted() + 1);
+        }
+        return result;
+    }
+
+    /**
+     * Get battery level of drone not flushed yet
+     *
+     * @param droneId drone id
+     * @return battery level or empty if there is no buffered reading
+     */
+    public Optional<Integer> findBatteryLevel(Long droneId) {
+        return Optional.ofNullable(buffer.get(droneId))
+                .map(BatteryReadingDTO::getBattery);
+    }
+
+    /**
+     * Write buffered readings to database and fleet index. Readings received during flush stay in buffer
+     * for the next one, failed flush is retried next time.
+     */
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${drones.telemetry.flush-delay-ms:1000}")
+    public void flush() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        List<BatteryReadingDTO> pending = new ArrayList<>(buffer.values());
+        Timestamp updatedAt = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_BATTERY, pending, FLUSH_BATCH_SIZE, (ps, reading) -> {
+                ps.setInt(1, reading.getBattery());
+                ps.setTimestamp(2, updatedAt);
+                ps.setLong(3, reading.getDroneId());
+            });
+        } catch (DataAccessException e) {
+            log.error("Can't flush " + pending.size() + " battery readings", e);
+            return;
+        }
+        for (BatteryReadingDTO reading : pending) {
+            fleetIndex.update(reading.getDroneId(), snapshot -> snapshot.withBatteryCapacity(reading.getBattery()));
+            buffer.computeIfPresent(reading.getDroneId(), (droneId, buffered) -> {
+                applied.merge(droneId, reading.getTimestamp(),
+                        (previous, next) -> next.isBefore(previous) ? previous : next);
+                return buffered == reading ? null : buffered;
+            });
+        }
+        log.debug("Flushed " + pending.size() + " battery readings");
+    }
+
+    /**
+     * Number of drones with buffered readings
+     *
+     * @return buffer size
+     */
+    public int getBufferedCount() {
+        return buffer.size();
+    }
+
+    /**
+     * Keep reading in buffer unless a newer one is buffered
+     *
+     * @param reading battery reading with timestamp
+     * @return false if reading is older than the last flushed one of the drone
+     */
+    private boolean bufferReading(BatteryReadingDTO reading) {
+        AtomicBoolean stale = new AtomicBoolean();
+        buffer.compute(reading.getDroneId(), (droneId, previous) -> {
+            LocalDateTime appliedAt = applied.get(droneId);
+            if (appliedAt != null && reading.getTimestamp().isBefore(appliedAt)) {
+                stale.set(true);
+                return previous;
+            }
+            return previous != null && reading.getTimestamp().isBefore(previous.getTimestamp()) ? previous : reading;
+        });
+        return !stale.get();
+    }
+
+    private String checkReading(BatteryReadingDTO reading) {
+        if (reading.getDroneId() == null || fleetIndex.get(reading.getDroneId()) == null) {
+            return "No drone found with id: " + reading.getDroneId();
+        }
+        if (reading.getBattery() < MIN_BATTERY_LEVEL || reading.getBattery() > MAX_BATTERY_LEVEL) {
+            return "Battery level can't be more than " + MAX_BATTERY_LEVEL + " or less than " + MIN_BATTERY_LEVEL;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.drones.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Local file system image store. Uploads are streamed to a temp file via NIO channel while hash is calculated,
+ * then moved to {@code <root>/<hash[0..2]>/<hash[2..4]>/<hash>}. Already stored content is not written twice.
+ */
+@Slf4j
+@Component
+public class LocalFileSystemMedicationImageStore implements MedicationImageStore {
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final Pattern HASH_PATTERN = Pattern.compile("^[0-9a-f]{64}$");
+    private static final long TRANSFER_CHUNK_SIZE = 1024 * 1024;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Path root;
+    private final Path uploads;
+
+    public LocalFileSystemMedicationImageStore(@Value("${drones.images.path}") Path root) throws IOException {
+        this.root = root;
+        this.uploads = Files.createDirectories(root.resolve(".uploads"));
+    }
+
+    @Override
+    public String store(InputStream content) throws IOException {
+        MessageDigest digest = newDigest();
+        Path upload = Files.createTempFile(uploads, "upload-", ".part");
+        try {
+            try (ReadableByteChannel in = Channels.newChannel(new DigestInputStream(content, digest));
+                 FileChannel out = FileChannel.open(upload, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = out.transferFrom(in, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                    position += transferred;
+                }
+            }
+
+            String hash = toHex(digest.digest());
+            Path target = resolve(hash);
+            if (Files.exists(target)) {
+                log.info("Image with hash: " + hash + " is already stored");
+                return hash;
+            }
+            Files.createDirectories(target.getParent());
+            // same content under the same name, so concurrent replacement is harmless
+            Files.move(upload, target, StandardCopyOption.ATOMIC_MOVE);
+            log.info("Stored image with hash: " + hash);
+            return hash;
+        } finally {
+            Files.deleteIfExists(upload);
+        }
+    }
+
+    @Override
+    public Optional<Path> find(String hash) {
+        if (hash == null || !HASH_PATTERN.matcher(hash).matches()) {
+            return Optional.empty();
+        }
+        Path path = resolve(hash);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Get image path by hash
+     *
+     * @param hash SHA-256 hex hash
+     * @return image path
+     */
+    private Path resolve(String hash) {
+        return root.resolve(hash.substring(0, 2))
+                .resolve(hash.substring(2, 4))
+                .resolve(hash);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(HASH_ALGORITHM + " isn't supported", e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
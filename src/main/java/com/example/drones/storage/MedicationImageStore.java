@@ -0,0 +1,29 @@
+package com.example.drones.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage of medication images. Images are referenced by SHA-256 hash of their content,
+ * so the same picture uploaded many times is kept once.
+ */
+public interface MedicationImageStore {
+    /**
+     * Store image content. Stream is read till the end, but never held in memory as a whole.
+     *
+     * @param content image content
+     * @return SHA-256 hex hash of the content
+     * @throws IOException if content can't be read or stored
+     */
+    String store(InputStream content) throws IOException;
+
+    /**
+     * Find stored image by hash
+     *
+     * @param hash SHA-256 hex hash
+     * @return path to image file or empty if there is no such image
+     */
+    Optional<Path> find(String hash);
+}
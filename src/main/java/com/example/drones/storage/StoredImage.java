@@ -0,0 +1,14 @@
+package com.example.drones.storage;
+
+import lombok.Value;
+
+import java.nio.file.Path;
+
+/**
+ * Stored image reference: content hash and file location
+ */
+@Value
+public class StoredImage {
+    String hash;
+    Path path;
+}
@@ -0,0 +1,122 @@
+package com.example.drones.validation;
+
+import com.example.drones.dto.MedicationDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Medication manifest validator. Name and code are scanned with char tables instead of regex
+ * (same rules as {@code ^[a-zA-Z0-9_-]*$} and {@code ^[A-Z0-9_]*$}), weights are summed as primitives,
+ * all violations are collected in one pass over the manifest. Name is required, code is optional,
+ * every item must weigh more than zero.
+ */
+@Component
+public class MedicationValidator {
+    public static final String NAME_REQUIRED_MESSAGE = "Name is required";
+    public static final String NAME_MESSAGE = "Only letters, numbers, underscore, dash available for name";
+    public static final String CODE_MESSAGE = "Only upper case letters, underscore, numbers available for code";
+    public static final String ITEM_WEIGHT_MESSAGE = "Weight must be positive";
+    public static final String WEIGHT_MESSAGE = "Maximum weight capacity for drone has been reached";
+
+    private static final boolean[] NAME_CHARS = new boolean[128];
+    private static final boolean[] CODE_CHARS = new boolean[128];
+
+    static {
+        for (char c = 'A'; c <= 'Z'; c++) {
+            NAME_CHARS[c] = true;
+            NAME_CHARS[Character.toLowerCase(c)] = true;
+            CODE_CHARS[c] = true;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            NAME_CHARS[c] = true;
+            CODE_CHARS[c] = true;
+        }
+        NAME_CHARS['_'] = true;
+        NAME_CHARS['-'] = true;
+        CODE_CHARS['_'] = true;
+    }
+
+    /**
+     * Check names, codes, weights and total weight of medications
+     *
+     * @param medicationDTOs meds DTOs
+     * @param weightLimit    drone weight limit
+     * @return violations, empty if manifest is valid
+     */
+    public List<MedicationViolation> validate(List<MedicationDTO> medicationDTOs, int weightLimit) {
+        List<MedicationViolation> violations = new ArrayList<>(0);
+        long weight = 0;
+        for (int i = 0, size = medicationDTOs.size(); i < size; i++) {
+            MedicationDTO medicationDTO = medicationDTOs.get(i);
+            checkItem(i, medicationDTO, violations);
+            weight += medicationDTO.getWeight();
+        }
+        if (weight > weightLimit) {
+            violations.add(new MedicationViolation(MedicationViolation.MANIFEST, WEIGHT_MESSAGE));
+        }
+        return violations;
+    }
+
+    /**
+     * Check names, codes and weights of single medications, drone isn't needed
+     *
+     * @param medicationDTOs meds DTOs
+     * @return violations, empty if manifest is valid
+     */
+    public List<MedicationViolation> validateFormats(List<MedicationDTO> medicationDTOs) {
+        List<MedicationViolation> violations = new ArrayList<>(0);
+        for (int i = 0, size = medicationDTOs.size(); i < size; i++) {
+            checkItem(i, medicationDTOs.get(i), violations);
+        }
+        return violations;
+    }
+
+    /**
+     * Check name of medication
+     *
+     * @param name medication name
+     * @return true if name isn't null and contains only allowed chars
+     */
+    public static boolean isValidName(String name) {
+        return name != null && matches(name, NAME_CHARS);
+    }
+
+    /**
+     * Check code of medication
+     *
+     * @param code medication code
+     * @return true if code is null or contains only allowed chars
+     */
+    public static boolean isValidCode(String code) {
+        return matches(code, CODE_CHARS);
+    }
+
+    private static void checkItem(int index, MedicationDTO medicationDTO, List<MedicationViolation> violations) {
+        if (medicationDTO.getName() == null) {
+            violations.add(new MedicationViolation(index, NAME_REQUIRED_MESSAGE));
+        } else if (!isValidName(medicationDTO.getName())) {
+            violations.add(new MedicationViolation(index, NAME_MESSAGE));
+        }
+        if (!isValidCode(medicationDTO.getCode())) {
+            violations.add(new MedicationViolation(index, CODE_MESSAGE));
+        }
+        if (medicationDTO.getWeight() <= 0) {
+            violations.add(new MedicationViolation(index, ITEM_WEIGHT_MESSAGE));
+        }
+    }
+
+    private static boolean matches(String value, boolean[] allowed) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= allowed.length || !allowed[c]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.drones.validation;
+
+import lombok.Value;
+
+/**
+ * Violation of medication constraints. Index is position of medication in manifest,
+ * {@link #MANIFEST} for violations of the whole manifest (e.g. total weight)
+ */
+@Value
+public class MedicationViolation {
+    public static final int MANIFEST = -1;
+
+    int index;
+    String message;
+}
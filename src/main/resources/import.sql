@@ -13,8 +13,15 @@ INSERT INTO drones (id, serial_number, drone_model, battery_capacity, weight_lim
 
 
 -- Init medications
-INSERT INTO medications (id, name, weight, code, drone_id, image, created_at) VALUES (0, 'med-0', 40, 'CODE_0', 2, '01', CURRENT_TIMESTAMP);
-INSERT INTO medications (id, name, weight, code, drone_id, image, created_at) VALUES (1, 'med-1', 40, 'CODE_1', 2, '02', CURRENT_TIMESTAMP);
-INSERT INTO medications (id, name, weight, code, drone_id, image, created_at) VALUES (2, 'med-2', 200, 'CODE_2', 5, '03', CURRENT_TIMESTAMP);
-INSERT INTO medications (id, name, weight, code, drone_id, image, created_at) VALUES (3, 'med-3', 200, 'CODE_3', 7, '04', CURRENT_TIMESTAMP);
-INSERT INTO medications (id, name, weight, code, drone_id, image, created_at) VALUES (4, 'med-4', 80, 'CODE_4', 7, '05', CURRENT_TIMESTAMP);
+INSERT INTO medications (id, name, weight, code, drone_id, created_at) VALUES (0, 'med-0', 40, 'CODE_0', 2, CURRENT_TIMESTAMP);
+INSERT INTO medications (id, name, weight, code, drone_id, created_at) VALUES (1, 'med-1', 40, 'CODE_1', 2, CURRENT_TIMESTAMP);
+INSERT INTO medications (id, name, weight, code, drone_id, created_at) VALUES (2, 'med-2', 200, 'CODE_2', 5, CURRENT_TIMESTAMP);
+INSERT INTO medications (id, name, weight, code, drone_id, created_at) VALUES (3, 'med-3', 200, 'CODE_3', 7, CURRENT_TIMESTAMP);
+INSERT INTO medications (id, name, weight, code, drone_id, created_at) VALUES (4, 'med-4', 80, 'CODE_4', 7, CURRENT_TIMESTAMP);
+
+-- Loaded weights of seeded medications
+UPDATE drones SET loaded_weight = (SELECT coalesce(sum(m.weight), 0) FROM medications m WHERE m.drone_id = drones.id);
+
+-- Move sequences past seeded ids (pooled-lo optimizer hands out [next value, next value + allocation size))
+ALTER SEQUENCE drones_seq RESTART WITH 10;
+ALTER SEQUENCE medications_seq RESTART WITH 5;
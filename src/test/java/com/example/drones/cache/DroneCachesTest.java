@@ -0,0 +1,100 @@
+package com.example.drones.cache;
+
+import com.example.drones.dto.MedicationDTO;
+import com.example.drones.index.FleetIndex;
+import com.example.drones.service.DroneService;
+import com.example.drones.service.MedicationsChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Sql(value = "/init_data/medication_repository_init_data.sql", config = @SqlConfig)
+class DroneCachesTest {
+    @Autowired
+    private DroneService droneService;
+    @Autowired
+    private FleetIndex fleetIndex;
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void init() {
+        fleetIndex.rebuild();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    @Test
+    void cachedUntilMedicationsChangeTest() {
+        // GIVEN
+        List<MedicationDTO> medications = droneService.getAllDroneMedications(4L);
+        droneService.getAllDroneMedicationSummaries(4L);
+        assertSame(medications, droneService.getAllDroneMedications(4L));
+
+        // WHEN
+        droneService.loadDrone(new ArrayList<>(List.of(MedicationDTO.builder()
+                .droneId(4L)
+                .name("cached-1")
+                .code("CODE")
+                .weight(10)
+                .build())));
+
+        // THEN
+        assertEquals(1, droneService.getAllDroneMedications(4L).size());
+        assertEquals(1, droneService.getAllDroneMedicationSummaries(4L).size());
+        assertTrue(meterRegistry.get("cache.gets")
+                .tag("cache", DroneCaches.MEDICATIONS)
+                .tag("result", "hit")
+                .functionCounter().count() > 0);
+    }
+
+    @Test
+    void evictedBeforeAndAfterCommitTest() {
+        // GIVEN
+        Cache cache = cacheManager.getCache(DroneCaches.MEDICATIONS);
+        cache.put(4L, List.of());
+        List<Object> cachedBeforeCommit = new ArrayList<>();
+
+        // WHEN
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new MedicationsChangedEvent(4L));
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    cachedBeforeCommit.add(cache.get(4L));
+                    // read during the commit caches old rows again
+                    cache.put(4L, List.of());
+                }
+            });
+        });
+
+        // THEN
+        assertEquals(Collections.singletonList(null), cachedBeforeCommit);
+        assertNull(cache.get(4L));
+    }
+}
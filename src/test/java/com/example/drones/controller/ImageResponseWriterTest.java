@@ -0,0 +1,162 @@
+package com.example.drones.controller;
+
+import com.example.drones.storage.StoredImage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ImageResponseWriterTest {
+    private static final String HASH = "hash";
+
+    @TempDir
+    Path root;
+
+    private final ImageResponseWriter imageResponseWriter = new ImageResponseWriter();
+    private StoredImage image;
+
+    @BeforeEach
+    void init() throws IOException {
+        Path path = Files.write(root.resolve(HASH), "0123456789".getBytes(StandardCharsets.UTF_8));
+        image = new StoredImage(HASH, path);
+    }
+
+    @Test
+    void writeTest() throws IOException {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // WHEN
+        imageResponseWriter.write(image, request, response);
+
+        // THEN
+        assertEquals(200, response.getStatus());
+        assertEquals("\"hash\"", response.getHeader(HttpHeaders.ETAG));
+        assertEquals(10, response.getContentLengthLong());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void writeNotModifiedTest() throws IOException {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", \"hash\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // WHEN
+        imageResponseWriter.write(image, request, response);
+
+        // THEN
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void writeRangeTest() throws IOException {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // WHEN
+        imageResponseWriter.write(image, request, response);
+
+        // THEN
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-4/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("234", response.getContentAsString());
+    }
+
+    @Test
+    void writeSuffixRangeTest() throws IOException {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=-3");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // WHEN
+        imageResponseWriter.write(image, request, response);
+
+        // THEN
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 7-9/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("789", response.getContentAsString());
+    }
+
+    @Test
+    void writeStaleIfRangeTest() throws IOException {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-4");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"other\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // WHEN
+        imageResponseWriter.write(image, request, response);
+
+        // THEN
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+    }
+
+    @Test
+    void writeRangeNotSatisfiableTest() throws IOException {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // WHEN
+        imageResponseWriter.write(image, request, response);
+
+        // THEN
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void writeSendfileTest() throws IOException {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute(ImageResponseWriter.SENDFILE_SUPPORT_ATTR, Boolean.TRUE);
+        request.addHeader(HttpHeaders.RANGE, "bytes=5-");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // WHEN
+        imageResponseWriter.write(image, request, response);
+
+        // THEN
+        assertEquals(206, response.getStatus());
+        assertEquals(image.getPath().toAbsolutePath().toString(), request.getAttribute(ImageResponseWriter.SENDFILE_FILENAME_ATTR));
+        assertEquals(5L, request.getAttribute(ImageResponseWriter.SENDFILE_START_ATTR));
+        assertEquals(10L, request.getAttribute(ImageResponseWriter.SENDFILE_END_ATTR));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void writeHeadTest() throws IOException {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("HEAD", "/");
+        request.setAttribute(ImageResponseWriter.SENDFILE_SUPPORT_ATTR, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // WHEN
+        imageResponseWriter.write(image, request, response);
+
+        // THEN
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentLengthLong());
+        assertNull(request.getAttribute(ImageResponseWriter.SENDFILE_FILENAME_ATTR));
+    }
+}
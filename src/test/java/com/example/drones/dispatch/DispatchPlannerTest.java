@@ -0,0 +1,57 @@
+package com.example.drones.dispatch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class DispatchPlannerTest {
+    private final DispatchPlanner dispatchPlanner = new DispatchPlanner();
+
+    @Test
+    void planHeaviestFirstTest() {
+        // GIVEN
+        int[] capacities = {100, 100};
+        int[] weights = {30, 60, 50, 40, 20};
+
+        // WHEN
+        int[] assignments = dispatchPlanner.plan(capacities, weights);
+
+        // THEN
+        assertArrayEquals(new int[]{1, 0, 1, 0, 1}, assignments);
+    }
+
+    @Test
+    void planUnassignedTest() {
+        // GIVEN
+        int[] capacities = {100, 50};
+        int[] weights = {120, 80, 40, 30};
+
+        // WHEN
+        int[] assignments = dispatchPlanner.plan(capacities, weights);
+
+        // THEN
+        assertArrayEquals(new int[]{DispatchPlanner.UNASSIGNED, 0, 1, DispatchPlanner.UNASSIGNED}, assignments);
+    }
+
+    @Test
+    void planEqualWeightsInRequestOrderTest() {
+        // GIVEN
+        int[] capacities = {20, 20};
+        int[] weights = {10, 10, 10, 0};
+
+        // WHEN
+        int[] assignments = dispatchPlanner.plan(capacities, weights);
+
+        // THEN
+        assertArrayEquals(new int[]{0, 0, 1, 0}, assignments);
+    }
+
+    @Test
+    void planWithoutDronesTest() {
+        // WHEN
+        int[] assignments = dispatchPlanner.plan(new int[0], new int[]{10});
+
+        // THEN
+        assertArrayEquals(new int[]{DispatchPlanner.UNASSIGNED}, assignments);
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.drones.index;
+
+import com.example.drones.dto.FleetIndexCheckDTO;
+import com.example.drones.enums.DroneModel;
+import com.example.drones.enums.DroneState;
+import com.example.drones.repository.DroneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FleetIndexTest {
+    @Mock
+    private DroneRepository droneRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @InjectMocks
+    private FleetIndex fleetIndex;
+
+    @BeforeEach
+    void init() {
+        when(droneRepository.findAllSnapshots()).thenReturn(List.of(
+                snapshot(0L, 24, DroneState.IDLE),
+                snapshot(1L, 25, DroneState.IDLE),
+                snapshot(2L, 75, DroneState.LOADED),
+                snapshot(3L, 40, DroneState.IDLE),
+                snapshot(4L, 100, DroneState.IDLE)));
+        fleetIndex.rebuild();
+    }
+
+    @Test
+    void findAvailableTest() {
+        // WHEN
+        List<DroneSnapshot> available = fleetIndex.findAvailable(25);
+
+        // THEN
+        assertEquals(List.of(4L, 3L), ids(available));
+    }
+
+    @Test
+    void updateTest() {
+        // WHEN
+        fleetIndex.update(snapshot(4L, 100, DroneState.LOADING));
+        fleetIndex.update(snapshot(2L, 30, DroneState.IDLE));
+        fleetIndex.update(snapshot(5L, 90, DroneState.IDLE));
+
+        // THEN
+        assertEquals(List.of(5L, 3L, 2L), ids(fleetIndex.findAvailable(25)));
+        assertEquals(1, fleetIndex.count(DroneState.LOADING));
+        assertEquals(0, fleetIndex.count(DroneState.LOADED));
+        assertEquals(5, fleetIndex.count(DroneState.IDLE));
+        assertEquals(DroneState.LOADING, fleetIndex.get(4L).getDroneState());
+    }
+
+    @Test
+    void updateChangeTest() {
+        // WHEN
+        fleetIndex.update(3L, snapshot -> snapshot.withBatteryCapacity(90));
+        fleetIndex.update(2L, snapshot -> snapshot.withDroneState(DroneState.IDLE));
+        fleetIndex.update(5L, snapshot -> snapshot.withDroneState(DroneState.IDLE));
+
+        // THEN
+        assertEquals(List.of(4L, 3L, 2L), ids(fleetIndex.findAvailable(25)));
+        assertNull(fleetIndex.get(5L));
+    }
+
+    @Test
+    void updatePublishesChangeTest() {
+        // WHEN
+        fleetIndex.update(3L, snapshot -> snapshot.withBatteryCapacity(90));
+
+        // THEN
+        verify(eventPublisher).publishEvent(new FleetChangeEvent(
+                snapshot(3L, 40, DroneState.IDLE), snapshot(3L, 90, DroneState.IDLE)));
+    }
+
+    @Test
+    void updateUnchangedNotPublishedTest() {
+        // WHEN
+        fleetIndex.update(snapshot(3L, 40, DroneState.IDLE));
+        fleetIndex.update(5L, snapshot -> snapshot.withBatteryCapacity(90));
+
+        // THEN
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void findAllTest() {
+        // WHEN
+        List<DroneSnapshot> found = fleetIndex.findAll(snapshot -> snapshot.getBatteryCapacity() < 50);
+
+        // THEN
+        assertEquals(List.of(0L, 1L, 3L), ids(found).stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void findAllPublishedTest() {
+        // GIVEN
+        fleetIndex.update(3L, snapshot -> snapshot.withBatteryCapacity(90));
+
+        // WHEN
+        List<DroneSnapshot> found = fleetIndex.findAllPublished(snapshot -> snapshot.getBatteryCapacity() < 50);
+
+        // THEN
+        assertEquals(List.of(0L, 1L), ids(found).stream().sorted().collect(Collectors.toList()));
+        assertEquals(90, fleetIndex.get(3L).getBatteryCapacity());
+    }
+
+    @Test
+    void countByBatteryTest() {
+        // WHEN - THEN
+        assertEquals(1, fleetIndex.countByBattery(0, 24));
+        assertEquals(2, fleetIndex.countByBattery(25, 49));
+        assertEquals(2, fleetIndex.countByBattery(75, 100));
+        assertEquals(5, fleetIndex.countByBattery(-1, 101));
+    }
+
+    @Test
+    void checkConsistentTest() {
+        // WHEN
+        FleetIndexCheckDTO check = fleetIndex.check();
+
+        // THEN
+        assertTrue(check.isConsistent());
+        assertEquals(5, check.getIndexed());
+        assertEquals(5, check.getPersisted());
+    }
+
+    @Test
+    void checkInconsistentTest() {
+        // GIVEN
+        fleetIndex.update(snapshot(4L, 100, DroneState.LOADING));
+        fleetIndex.update(snapshot(5L, 90, DroneState.IDLE));
+
+        // WHEN
+        FleetIndexCheckDTO check = fleetIndex.check();
+
+        // THEN
+        assertFalse(check.isConsistent());
+        assertEquals(6, check.getIndexed());
+        assertEquals(5, check.getPersisted());
+        assertEquals(List.of(4L, 5L), check.getMismatchedDroneIds());
+    }
+
+    private static DroneSnapshot snapshot(Long id, int batteryCapacity, DroneState droneState) {
+        return new DroneSnapshot(id, String.valueOf(id), DroneModel.LIGHTWEIGHT, 100, 0, batteryCapacity, droneState);
+    }
+
+    private static List<Long> ids(List<DroneSnapshot> snapshots) {
+        return snapshots.stream()
+                .map(DroneSnapshot::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.drones.lifecycle;
+
+import com.example.drones.enums.DroneState;
+import com.example.drones.index.FleetIndex;
+import com.example.drones.metrics.DroneMetrics;
+import com.example.drones.service.BatteryHistoryService;
+import com.example.drones.service.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Sql(value = "/init_data/medication_repository_init_data.sql", config = @SqlConfig)
+@Transactional
+class LifecycleEngineTest {
+    private static final long START = 1_000_000L;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private FleetIndex fleetIndex;
+    @Autowired
+    private DroneMetrics droneMetrics;
+    @Autowired
+    private BatteryHistoryService batteryHistoryService;
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    private LifecycleEngine lifecycleEngine;
+
+    @BeforeEach
+    void init() {
+        fleetIndex.rebuild();
+        lifecycleEngine = newEngine(transactionTemplate);
+    }
+
+    @Test
+    void tickTransitsDronesThroughLifecycleTest() {
+        // GIVEN
+        long outboxPosition = jdbcTemplate.queryForObject(
+                "select coalesce(max(id), 0) from outbox_events", Long.class);
+
+        // WHEN
+        lifecycleEngine.tick(START + 1000);
+
+        // THEN
+        assertDrone(2L, DroneState.DELIVERING, 75, 80);
+        assertDrone(5L, DroneState.DELIVERING, 55, 200);
+        assertEquals(200, fleetIndex.get(5L).getLoadedWeight());
+        assertDrone(7L, DroneState.RETURNING, 35, 0);
+        assertDrone(9L, DroneState.RETURNING, 85, 0);
+
+        // WHEN
+        lifecycleEngine.tick(START + 2000);
+
+        // THEN
+        assertDrone(2L, DroneState.DELIVERING, 75, 80);
+        assertDrone(5L, DroneState.DELIVERED, 45, 0);
+        assertEquals(0, fleetIndex.get(5L).getLoadedWeight());
+        assertDrone(9L, DroneState.IDLE, 75, 0);
+        assertEquals(0, countMedications(5L));
+        assertEquals(2, countMedications(2L));
+
+        // WHEN
+        lifecycleEngine.tick(START + 3000);
+
+        // THEN
+        assertDrone(2L, DroneState.DELIVERED, 65, 0);
+        assertDrone(7L, DroneState.IDLE, 25, 0);
+        assertEquals(0, countMedications(2L));
+        assertEquals(2, lifecycleEngine.getPendingCount());
+
+        // WHEN
+        lifecycleEngine.tick(START + 4000);
+        lifecycleEngine.tick(START + 5000);
+        lifecycleEngine.tick(START + 6000);
+
+        // THEN
+        assertDrone(2L, DroneState.IDLE, 55, 0);
+        assertDrone(5L, DroneState.IDLE, 35, 0);
+        assertEquals(0, lifecycleEngine.getPendingCount());
+        assertEquals(10, jdbcTemplate.queryForObject("select count(*) from outbox_events "
+                + "where id > ? and event_type = 'STATE_CHANGED'", Integer.class, outboxPosition));
+    }
+
+    @Test
+    void tickSkipsDronesChangedConcurrentlyTest() {
+        // GIVEN
+        jdbcTemplate.update("update drones set drone_state = 'IDLE' where id = 7");
+
+        // WHEN
+        lifecycleEngine.tick(START + 1000);
+
+        // THEN
+        assertEquals("IDLE", jdbcTemplate.queryForObject(
+                "select drone_state from drones where id = 7", String.class));
+        assertEquals(DroneState.DELIVERED, fleetIndex.get(7L).getDroneState());
+        assertDrone(2L, DroneState.DELIVERING, 75, 80);
+        assertEquals(3, lifecycleEngine.getPendingCount());
+    }
+
+    @Test
+    void tickRetriesTransitionsAfterTransactionFailureTest() {
+        // GIVEN
+        AtomicBoolean fail = new AtomicBoolean(true);
+        lifecycleEngine = newEngine(new TransactionTemplate(transactionManager) {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                if (fail.getAndSet(false)) {
+                    throw new CannotCreateTransactionException("Connection is not available");
+                }
+                return super.execute(action);
+            }
+        });
+
+        // WHEN
+        lifecycleEngine.tick(START + 1000);
+
+        // THEN
+        assertDrone(2L, DroneState.LOADED, 75, 80);
+        assertDrone(7L, DroneState.DELIVERED, 35, 0);
+        assertEquals(4, lifecycleEngine.getPendingCount());
+
+        // WHEN
+        lifecycleEngine.tick(START + 2000);
+
+        // THEN
+        assertDrone(2L, DroneState.DELIVERING, 75, 80);
+        assertDrone(7L, DroneState.RETURNING, 35, 0);
+        assertDrone(9L, DroneState.IDLE, 75, 0);
+        assertEquals(3, lifecycleEngine.getPendingCount());
+    }
+
+    private LifecycleEngine newEngine(TransactionTemplate transactionTemplate) {
+        Map<DroneState, Duration> legs = Map.of(
+                DroneState.LOADED, Duration.ofSeconds(1),
+                DroneState.DELIVERING, Duration.ofSeconds(2),
+                DroneState.DELIVERED, Duration.ofSeconds(1),
+                DroneState.RETURNING, Duration.ofSeconds(2));
+        LifecycleEngine engine = new LifecycleEngine(jdbcTemplate, transactionTemplate, fleetIndex, droneMetrics,
+                batteryHistoryService, outboxService, eventPublisher, true, 100, legs, 10, () -> START);
+        engine.resume();
+        engine.tick(START);
+        return engine;
+    }
+
+    private void assertDrone(Long droneId, DroneState droneState, int battery, int loadedWeight) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select drone_state, battery_capacity, loaded_weight from drones where id = ?", droneId);
+        assertEquals(droneState.name(), row.get("DRONE_STATE"));
+        assertEquals(battery, row.get("BATTERY_CAPACITY"));
+        assertEquals(loadedWeight, row.get("LOADED_WEIGHT"));
+        assertEquals(droneState, fleetIndex.get(droneId).getDroneState());
+        assertEquals(battery, fleetIndex.get(droneId).getBatteryCapacity());
+    }
+
+    private int countMedications(Long droneId) {
+        return jdbcTemplate.queryForObject("select count(*) from medications where drone_id = ?",
+                Integer.class, droneId);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.drones.lifecycle;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+    private static final long START = 1_000_000L;
+    private static final long TICK = 10L;
+
+    @Test
+    void advanceExpiresDueTimersInOrderTest() {
+        // GIVEN
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        wheel.schedule("c", START + 300);
+        wheel.schedule("a", START + 15);
+        wheel.schedule("b", START + 100);
+        List<String> expired = new ArrayList<>();
+
+        // WHEN
+        wheel.advance(START + 100, expired::add);
+
+        // THEN
+        assertEquals(List.of("a", "b"), expired);
+        assertEquals(1, wheel.size());
+
+        // WHEN
+        wheel.advance(START + 299, expired::add);
+
+        // THEN
+        assertEquals(List.of("a", "b"), expired);
+
+        // WHEN
+        wheel.advance(START + 300, expired::add);
+
+        // THEN
+        assertEquals(List.of("a", "b", "c"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advanceCascadesHigherLevelsTest() {
+        // GIVEN
+        TimingWheel<Long> wheel = new TimingWheel<>(TICK, START);
+        long[] delays = {64 * TICK, 65 * TICK, 4096 * TICK + 7 * TICK, 300_000 * TICK};
+        for (long delay : delays) {
+            wheel.schedule(delay, START + delay);
+        }
+        List<Long> expired = new ArrayList<>();
+        List<Long> expiredAt = new ArrayList<>();
+
+        // WHEN
+        for (long now = START; now <= START + 300_000 * TICK; now += TICK) {
+            long time = now;
+            wheel.advance(now, delay -> {
+                expired.add(delay);
+                expiredAt.add(time - START);
+            });
+        }
+
+        // THEN
+        assertEquals(List.of(64 * TICK, 65 * TICK, 4103 * TICK, 300_000 * TICK), expired);
+        assertEquals(expired, expiredAt);
+    }
+
+    @Test
+    void scheduleBeyondSpanTest() {
+        // GIVEN
+        TimingWheel<String> wheel = new TimingWheel<>(1, 0);
+        long deadline = 3L * (1 << 24) + 5;
+        wheel.schedule("far", deadline);
+        List<String> expired = new ArrayList<>();
+
+        // WHEN
+        wheel.advance(deadline - 1, expired::add);
+
+        // THEN
+        assertTrue(expired.isEmpty());
+
+        // WHEN
+        wheel.advance(deadline, expired::add);
+
+        // THEN
+        assertEquals(List.of("far"), expired);
+    }
+
+    @Test
+    void schedulePastDeadlineExpiresOnNextTickTest() {
+        // GIVEN
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, START);
+        wheel.advance(START + 500, value -> {
+        });
+        wheel.schedule("late", START + 100);
+        List<String> expired = new ArrayList<>();
+
+        // WHEN
+        wheel.advance(START + 500, expired::add);
+
+        // THEN
+        assertTrue(expired.isEmpty());
+
+        // WHEN
+        wheel.advance(START + 510, expired::add);
+
+        // THEN
+        assertEquals(List.of("late"), expired);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.drones.outbox;
+
+import com.example.drones.dto.OutboxEventDTO;
+import com.example.drones.enums.OutboxEventType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FileOutboxSinkTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2022, 1, 1, 12, 0);
+
+    @TempDir
+    Path root;
+
+    @Test
+    void publishAppendsLinesTest() throws IOException {
+        // GIVEN
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        Path path = root.resolve("outbox").resolve("events.ndjson");
+        FileOutboxSink sink = new FileOutboxSink(path, objectMapper);
+
+        // WHEN
+        sink.publish(List.of(new OutboxEventDTO(1L, 2L, OutboxEventType.STATE_CHANGED,
+                "{\"from\":\"IDLE\",\"to\":\"LOADING\"}", CREATED_AT)));
+        sink.publish(List.of(new OutboxEventDTO(2L, 2L, OutboxEventType.MEDICATIONS_LOADED,
+                "{\"loadedWeight\":40}", CREATED_AT)));
+
+        // THEN
+        assertEquals(List.of(
+                "{\"id\":1,\"droneId\":2,\"eventType\":\"STATE_CHANGED\","
+                        + "\"payload\":{\"from\":\"IDLE\",\"to\":\"LOADING\"},\"createdAt\":\"2022-01-01T12:00:00\"}",
+                "{\"id\":2,\"droneId\":2,\"eventType\":\"MEDICATIONS_LOADED\","
+                        + "\"payload\":{\"loadedWeight\":40},\"createdAt\":\"2022-01-01T12:00:00\"}"),
+                Files.readAllLines(path));
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.drones.outbox;
+
+import com.example.drones.dto.DroneStateChangedDTO;
+import com.example.drones.dto.OutboxEventDTO;
+import com.example.drones.enums.DroneState;
+import com.example.drones.repository.OutboxCursorRepository;
+import com.example.drones.repository.OutboxRepository;
+import com.example.drones.service.OutboxService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Transactional
+class OutboxRelayTest {
+    private static final long NOW = 1_000_000L;
+    private static final long GAP_TIMEOUT_MS = 5000;
+    private static final long LATE_WINDOW_MS = 60000;
+
+    @Autowired
+    private OutboxService outboxService;
+    @Autowired
+    private OutboxRepository outboxRepository;
+    @Autowired
+    private OutboxCursorRepository outboxCursorRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    private InMemoryOutboxSink sink;
+    private MeterRegistry meterRegistry;
+    private long firstId;
+
+    @BeforeEach
+    void init() {
+        outboxService.stateChanged(2L, DroneState.IDLE, DroneState.LOADING, 80);
+        firstId = jdbcTemplate.queryForObject("select max(id) from outbox_events", Long.class);
+        jdbcTemplate.update("insert into outbox_cursors (sink, position) values ('test', ?)", firstId - 1);
+        sink = new InMemoryOutboxSink("test", 100);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void relayPublishesInOrderAndSavesPositionTest() {
+        // GIVEN
+        outboxService.statesChanged(List.of(
+                new DroneStateChangedDTO(2L, DroneState.LOADING, DroneState.LOADED, 80),
+                new DroneStateChangedDTO(3L, DroneState.IDLE, DroneState.LOADING, 60)));
+        OutboxRelay relay = newRelay(2);
+
+        // WHEN
+        int published = relay.relay(NOW);
+
+        // THEN
+        assertEquals(3, published);
+        assertEquals(List.of(firstId, firstId + 1, firstId + 2), ids(sink.getEvents()));
+        assertEquals("{\"droneId\":2,\"from\":\"IDLE\",\"to\":\"LOADING\",\"batteryCapacity\":80}",
+                sink.getEvents().get(0).getPayload());
+        assertEquals(firstId + 2, outboxCursorRepository.findById("test").orElseThrow().getPosition());
+
+        // WHEN
+        published = newRelay(2).relay(NOW);
+
+        // THEN
+        assertEquals(0, published);
+    }
+
+    @Test
+    void relayWaitsForGapTest() {
+        // GIVEN
+        jdbcTemplate.update("insert into outbox_events (id, drone_id, event_type, payload, created_at) "
+                + "values (?, 3, 'STATE_CHANGED', '{}', current_timestamp)", firstId + 2);
+        OutboxRelay relay = newRelay(10);
+
+        // WHEN
+        relay.relay(NOW);
+
+        // THEN
+        assertEquals(List.of(firstId), ids(sink.getEvents()));
+
+        // WHEN
+        relay.relay(NOW + GAP_TIMEOUT_MS - 1);
+
+        // THEN
+        assertEquals(List.of(firstId), ids(sink.getEvents()));
+
+        // WHEN
+        relay.relay(NOW + GAP_TIMEOUT_MS);
+
+        // THEN
+        assertEquals(List.of(firstId, firstId + 2), ids(sink.getEvents()));
+    }
+
+    @Test
+    void relayPublishesLateEventsTest() {
+        // GIVEN
+        insertEvent(firstId + 3);
+        OutboxRelay relay = newRelay(10);
+        relay.relay(NOW);
+        relay.relay(NOW + GAP_TIMEOUT_MS);
+        assertEquals(List.of(firstId, firstId + 3), ids(sink.getEvents()));
+
+        // WHEN
+        insertEvent(firstId + 1);
+        int published = relay.relay(NOW + GAP_TIMEOUT_MS + 1);
+
+        // THEN
+        assertEquals(1, published);
+        assertEquals(List.of(firstId, firstId + 3, firstId + 1), ids(sink.getEvents()));
+        assertEquals(1, meterRegistry.get(OutboxRelay.LATE).counter().count());
+
+        // WHEN
+        relay.relay(NOW + GAP_TIMEOUT_MS + LATE_WINDOW_MS);
+        insertEvent(firstId + 2);
+        published = relay.relay(NOW + GAP_TIMEOUT_MS + LATE_WINDOW_MS + 1);
+
+        // THEN
+        assertEquals(0, published);
+        assertEquals(List.of(firstId, firstId + 3, firstId + 1), ids(sink.getEvents()));
+    }
+
+    private void insertEvent(long id) {
+        jdbcTemplate.update("insert into outbox_events (id, drone_id, event_type, payload, created_at) "
+                + "values (?, 3, 'STATE_CHANGED', '{}', current_timestamp)", id);
+    }
+
+    private OutboxRelay newRelay(int batchSize) {
+        return new OutboxRelay(outboxRepository, outboxCursorRepository, sink, batchSize, GAP_TIMEOUT_MS,
+                Duration.ofDays(1), LATE_WINDOW_MS, meterRegistry);
+    }
+
+    private static List<Long> ids(List<OutboxEventDTO> events) {
+        return events.stream()
+                .map(OutboxEventDTO::getId)
+                .collect(Collectors.toList());
+    }
+}
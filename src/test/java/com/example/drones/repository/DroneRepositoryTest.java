@@ -1,15 +1,22 @@
 package com.example.drones.repository;
 
+import com.example.drones.dto.DroneSummaryDTO;
+import com.example.drones.enums.DroneModel;
 import com.example.drones.enums.DroneState;
 import com.example.drones.model.Drone;
+import com.example.drones.scheduler.DroneBatteryRecord;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlConfig;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -18,21 +25,98 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 @Sql(value = "/init_data/drone_repository_init_data.sql", config = @SqlConfig)
 @Transactional
 class DroneRepositoryTest {
-    private static final int MIN_BATTERY_LEVEL_TO_LOAD = 25;
-
     @Autowired
     private DroneRepository droneRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void addLoadedWeightTest() {
+        // WHEN
+        int added = droneRepository.addLoadedWeight(4L, 150);
+        int overweight = droneRepository.addLoadedWeight(4L, 60);
+        int filled = droneRepository.addLoadedWeight(4L, 50);
+
+        // THEN
+        assertEquals(1, added);
+        assertEquals(0, overweight);
+        assertEquals(1, filled);
+        assertEquals(200, droneRepository.findById(4L).orElseThrow().getLoadedWeight());
+    }
+
+    @Test
+    void findBatteryChangedAfterTest() {
+        // GIVEN
+        LocalDateTime epoch = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+        // WHEN
+        List<DroneBatteryRecord> firstPage = droneRepository.findBatteryChangedAfter(epoch, -1L, PageRequest.of(0, 6));
+        DroneBatteryRecord last = firstPage.get(firstPage.size() - 1);
+        List<DroneBatteryRecord> secondPage = droneRepository.findBatteryChangedAfter(last.getChangedAt(), last.getId(),
+                PageRequest.of(0, 6));
+
+        // THEN
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L), ids(firstPage));
+        assertEquals(List.of(6L, 7L, 8L, 9L), ids(secondPage));
+        assertEquals(24, firstPage.get(0).getBatteryCapacity());
+    }
+
+    @Test
+    void findBatteryChangedAfterUpdateTest() {
+        // GIVEN
+        List<DroneBatteryRecord> all = droneRepository.findBatteryChangedAfter(LocalDateTime.of(1970, 1, 1, 0, 0), -1L,
+                PageRequest.of(0, 100));
+        DroneBatteryRecord last = all.get(all.size() - 1);
+
+        // WHEN
+        Drone drone = droneRepository.findById(3L).orElseThrow();
+        drone.setBatteryCapacity(39);
+        droneRepository.saveAndFlush(drone);
+        List<DroneBatteryRecord> changed = droneRepository.findBatteryChangedAfter(last.getChangedAt(), last.getId(),
+                PageRequest.of(0, 100));
+
+        // THEN
+        assertEquals(List.of(3L), ids(changed));
+        assertEquals(39, changed.get(0).getBatteryCapacity());
+    }
+
+    @Test
+    void updatedAtIndexSeekTest() {
+        // WHEN
+        String plan = jdbcTemplate.queryForObject("explain select id, battery_capacity, updated_at from drones "
+                + "where updated_at >= ? and (updated_at > ? or id > ?) order by updated_at, id limit 100",
+                String.class, LocalDateTime.now(), LocalDateTime.now(), -1L);
+
+        // THEN
+        assertTrue(plan.contains("DRONEUPDATEDAT: UPDATED_AT >= ?"), plan);
+        assertTrue(plan.contains("index sorted"), plan);
+    }
 
     @Test
-    void getAllAvailableDronesTest() {
+    void findSummariesTest() {
         // WHEN
-        List<Drone> allAvailableDrones = droneRepository.getAllAvailableDrones(MIN_BATTERY_LEVEL_TO_LOAD);
+        List<DroneSummaryDTO> firstPage = droneRepository.findSummaries(DroneState.IDLE, null, 25, null, 3);
+        List<DroneSummaryDTO> secondPage = droneRepository.findSummaries(DroneState.IDLE, null, 25,
+                firstPage.get(2).getId(), 3);
+        List<DroneSummaryDTO> models = droneRepository.findSummaries(null, DroneModel.MIDDLEWEIGHT, null, 3L, 10);
 
         // THEN
-        assertEquals(4, allAvailableDrones.size());
-        assertTrue(allAvailableDrones.stream()
-                .allMatch(drone -> drone.getDroneState() == DroneState.IDLE));
-        assertTrue(allAvailableDrones.stream()
-                .allMatch(drone -> drone.getBatteryCapacity() >= MIN_BATTERY_LEVEL_TO_LOAD));
+        assertEquals(List.of(1L, 3L, 4L), summaryIds(firstPage));
+        assertEquals(List.of(6L, 8L), summaryIds(secondPage));
+        assertEquals(List.of(4L, 5L), summaryIds(models));
+        assertEquals(new DroneSummaryDTO(1L, "1", DroneModel.LIGHTWEIGHT, 100, 25, DroneState.IDLE, 0),
+                firstPage.get(0));
+    }
+
+    private static List<Long> summaryIds(List<DroneSummaryDTO> summaries) {
+        return summaries.stream()
+                .map(DroneSummaryDTO::getId)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> ids(List<DroneBatteryRecord> records) {
+        return records.stream()
+                .map(DroneBatteryRecord::getId)
+                .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
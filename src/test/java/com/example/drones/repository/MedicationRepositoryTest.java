@@ -0,0 +1,82 @@
+package com.example.drones.repository;
+
+import com.example.drones.dto.MedicationSummaryDTO;
+import com.example.drones.model.Medication;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// own in-memory database: schema of a shared one is dropped by the first closed context
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:statisticsdb;DB_CLOSE_ON_EXIT=FALSE"
+})
+@Sql(value = "/init_data/medication_repository_init_data.sql", config = @SqlConfig)
+@Transactional
+class MedicationRepositoryTest {
+    @Autowired
+    private MedicationRepository medicationRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void findSummariesByDroneIdTest() {
+        // WHEN
+        List<MedicationSummaryDTO> summaries = medicationRepository.findSummariesByDroneId(2L);
+
+        // THEN
+        assertEquals(2, summaries.size());
+        assertEquals(new MedicationSummaryDTO(0L, "med-0", 40, "CODE_0", 2L), summaries.get(0));
+        assertEquals(new MedicationSummaryDTO(1L, "med-1", 40, "CODE_1", 2L), summaries.get(1));
+    }
+
+    @Test
+    void findSummariesByDroneIdEmptyTest() {
+        assertTrue(medicationRepository.findSummariesByDroneId(0L).isEmpty());
+    }
+
+    @Test
+    void findImageHashByIdTest() {
+        assertEquals("hash-2", medicationRepository.findImageHashById(2L).orElseThrow());
+        assertTrue(medicationRepository.findImageHashById(100L).isEmpty());
+    }
+
+    @Test
+    void saveAllInBatchesTest() {
+        // GIVEN
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<Medication> medications = IntStream.range(0, 120)
+                .mapToObj(i -> Medication.builder()
+                        .name("batch-" + i)
+                        .code("CODE_" + i)
+                        .weight(1)
+                        .build())
+                .collect(Collectors.toList());
+        statistics.clear();
+
+        // WHEN
+        List<Medication> saved = medicationRepository.saveAll(medications);
+        medicationRepository.flush();
+
+        // THEN
+        assertEquals(120, statistics.getEntityInsertCount());
+        // 3 sequence calls for 50 ids each and 3 insert batches instead of 120 of both
+        assertTrue(statistics.getPrepareStatementCount() <= 6);
+        for (int i = 1; i < saved.size(); i++) {
+            assertEquals(saved.get(i - 1).getId() + 1, saved.get(i).getId());
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.drones.scheduler;
+
+import com.example.drones.repository.DroneRepository;
+import com.example.drones.service.BatteryHistoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DroneSchedulerTest {
+    private static final Duration COMMIT_LAG = Duration.ofSeconds(30);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0).minus(COMMIT_LAG);
+    private static final LocalDateTime CHANGED_AT = LocalDateTime.of(2022, 1, 1, 0, 0);
+
+    @Mock
+    private DroneRepository droneRepository;
+    @Mock
+    private BatteryHistoryService batteryHistoryService;
+    private DroneScheduler droneScheduler;
+
+    @BeforeEach
+    void init() {
+        droneScheduler = new DroneScheduler(droneRepository, batteryHistoryService, 2, COMMIT_LAG);
+    }
+
+    @Test
+    void checkDronesBatteriesLevelsPagesTest() {
+        // GIVEN
+        PageRequest page = PageRequest.of(0, 2);
+        when(droneRepository.findBatteryChangedAfter(EPOCH, -1L, page)).thenReturn(List.of(
+                new DroneBatteryRecord(1L, 80, CHANGED_AT),
+                new DroneBatteryRecord(2L, 70, CHANGED_AT)));
+        when(droneRepository.findBatteryChangedAfter(CHANGED_AT, 2L, page)).thenReturn(List.of(
+                new DroneBatteryRecord(3L, 60, CHANGED_AT)));
+
+        // WHEN
+        droneScheduler.checkDronesBatteriesLevels();
+
+        // THEN
+        verify(droneRepository, times(2)).findBatteryChangedAfter(any(), anyLong(), any());
+        verify(batteryHistoryService, times(1)).record(3L, 60, CHANGED_AT);
+    }
+
+    @Test
+    void checkDronesBatteriesLevelsContinuesFromLastChangeTest() {
+        // GIVEN
+        PageRequest page = PageRequest.of(0, 2);
+        when(droneRepository.findBatteryChangedAfter(EPOCH, -1L, page)).thenReturn(List.of(
+                new DroneBatteryRecord(1L, 80, CHANGED_AT)));
+        droneScheduler.checkDronesBatteriesLevels();
+
+        // WHEN
+        droneScheduler.checkDronesBatteriesLevels();
+
+        // THEN
+        verify(droneRepository, times(1)).findBatteryChangedAfter(CHANGED_AT.minus(COMMIT_LAG), -1L, page);
+    }
+
+    @Test
+    void checkDronesBatteriesLevelsLogsLateCommitTest() {
+        // GIVEN
+        PageRequest page = PageRequest.of(0, 2);
+        when(droneRepository.findBatteryChangedAfter(EPOCH, -1L, page)).thenReturn(List.of(
+                new DroneBatteryRecord(1L, 80, CHANGED_AT)));
+        droneScheduler.checkDronesBatteriesLevels();
+        // drone 2 was stamped before drone 1 but committed after the first run
+        when(droneRepository.findBatteryChangedAfter(CHANGED_AT.minus(COMMIT_LAG), -1L, page)).thenReturn(List.of(
+                new DroneBatteryRecord(2L, 70, CHANGED_AT.minusSeconds(5)),
+                new DroneBatteryRecord(1L, 80, CHANGED_AT)));
+
+        // WHEN
+        droneScheduler.checkDronesBatteriesLevels();
+
+        // THEN
+        verify(batteryHistoryService, times(1)).record(2L, 70, CHANGED_AT.minusSeconds(5));
+        verify(batteryHistoryService, times(1)).record(1L, 80, CHANGED_AT);
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.BatterySampleDTO;
+import com.example.drones.enums.BatteryResolution;
+import com.example.drones.enums.DroneState;
+import com.example.drones.model.Drone;
+import com.example.drones.repository.BatteryHistoryRepository;
+import com.example.drones.scheduler.DroneScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class BatteryHistoryServiceTest {
+    private static final LocalDateTime START = LocalDateTime.of(2022, 1, 1, 12, 0);
+    private static final LocalDateTime END = START.plusDays(1);
+
+    @Autowired
+    private BatteryHistoryService batteryHistoryService;
+    @Autowired
+    private BatteryHistoryRepository batteryHistoryRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DroneService droneService;
+    @Autowired
+    private DroneScheduler droneScheduler;
+
+    @Test
+    void recordAndFlushTest() {
+        // GIVEN
+        batteryHistoryService.record(1L, 90, START.plusSeconds(10));
+        batteryHistoryService.record(1L, 80, START.plusSeconds(20));
+        batteryHistoryService.record(2L, 70, START.plusSeconds(10));
+
+        // WHEN
+        batteryHistoryService.flush();
+
+        // THEN
+        List<BatterySampleDTO> samples = batteryHistoryService.getHistory(1L, START, END, BatteryResolution.RAW);
+        assertEquals(List.of(
+                new BatterySampleDTO(START.plusSeconds(10), 90, 90, 90, 1),
+                new BatterySampleDTO(START.plusSeconds(20), 80, 80, 80, 1)), samples);
+        assertTrue(batteryHistoryService.getHistory(1L, START, END, BatteryResolution.MINUTE).isEmpty());
+    }
+
+    @Test
+    void downsampleTest() {
+        // GIVEN
+        batteryHistoryService.record(1L, 90, START.plusSeconds(10));
+        batteryHistoryService.record(1L, 80, START.plusSeconds(20));
+        batteryHistoryService.record(1L, 70, START.plusSeconds(30));
+        batteryHistoryService.record(1L, 60, START.plusMinutes(1).plusSeconds(10));
+        batteryHistoryService.flush();
+
+        // WHEN
+        batteryHistoryService.downsample(START.plusHours(2));
+
+        // THEN
+        assertTrue(batteryHistoryService.getHistory(1L, START, END, BatteryResolution.RAW).isEmpty());
+        assertEquals(List.of(
+                new BatterySampleDTO(START, 80, 70, 90, 3),
+                new BatterySampleDTO(START.plusMinutes(1), 60, 60, 60, 1)),
+                batteryHistoryService.getHistory(1L, START, END, BatteryResolution.MINUTE));
+
+        // WHEN
+        batteryHistoryService.downsample(START.plusDays(2));
+
+        // THEN
+        assertTrue(batteryHistoryService.getHistory(1L, START, END, BatteryResolution.MINUTE).isEmpty());
+        assertEquals(List.of(new BatterySampleDTO(START, 75, 60, 90, 4)),
+                batteryHistoryService.getHistory(1L, START, END, BatteryResolution.HOUR));
+
+        // WHEN
+        batteryHistoryService.downsample(START.plusDays(100));
+
+        // THEN
+        assertTrue(batteryHistoryService.getHistory(1L, START, END, BatteryResolution.HOUR).isEmpty());
+    }
+
+    @Test
+    void downsampleMergesLateSamplesTest() {
+        // GIVEN
+        batteryHistoryService.record(1L, 90, START.plusSeconds(10));
+        batteryHistoryService.flush();
+        batteryHistoryService.downsample(START.plusHours(2));
+
+        // WHEN
+        batteryHistoryService.record(1L, 70, START.plusSeconds(20));
+        batteryHistoryService.flush();
+        batteryHistoryService.downsample(START.plusHours(2));
+
+        // THEN
+        assertEquals(List.of(new BatterySampleDTO(START, 80, 70, 90, 2)),
+                batteryHistoryService.getHistory(1L, START, END, BatteryResolution.MINUTE));
+
+        // WHEN
+        batteryHistoryService.downsample(START.plusDays(2));
+        batteryHistoryService.record(1L, 60, START.plusSeconds(30));
+        batteryHistoryService.flush();
+        batteryHistoryService.downsample(START.plusDays(2));
+
+        // THEN
+        assertTrue(batteryHistoryService.getHistory(1L, START, END, BatteryResolution.MINUTE).isEmpty());
+        assertEquals(List.of(new BatterySampleDTO(START, 73, 60, 90, 3)),
+                batteryHistoryService.getHistory(1L, START, END, BatteryResolution.HOUR));
+    }
+
+    @Test
+    void recordDropsReadingsWhenBufferIsFullTest() {
+        // GIVEN
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BatteryHistoryService service = new BatteryHistoryService(batteryHistoryRepository, jdbcTemplate,
+                transactionTemplate, meterRegistry, Duration.ofHours(1), Duration.ofDays(1), Duration.ofDays(90), 2);
+
+        // WHEN
+        service.record(1L, 90, START.plusSeconds(10));
+        service.record(1L, 80, START.plusSeconds(20));
+        service.record(1L, 70, START.plusSeconds(30));
+        service.flush();
+        service.record(1L, 60, START.plusSeconds(40));
+        service.flush();
+
+        // THEN
+        assertEquals(3, service.getHistory(1L, START, END, BatteryResolution.RAW).size());
+        assertEquals(1, meterRegistry.counter(BatteryHistoryService.DROPPED).count());
+    }
+
+    @Test
+    void transitionRecordedOnceTest() {
+        // GIVEN
+        jdbcTemplate.update("update drones set drone_state = 'RETURNING', battery_capacity = 55 where id = 9");
+        Drone drone = Drone.builder()
+                .id(9L)
+                .droneState(DroneState.RETURNING)
+                .batteryCapacity(55)
+                .build();
+        LocalDateTime before = LocalDateTime.now().minusSeconds(1);
+
+        // WHEN
+        droneService.idleDrone(drone);
+        droneScheduler.checkDronesBatteriesLevels();
+        batteryHistoryService.flush();
+
+        // THEN
+        assertEquals(List.of(55), batteryHistoryService.getHistory(9L, before, LocalDateTime.now().plusSeconds(1),
+                BatteryResolution.RAW).stream()
+                .map(BatterySampleDTO::getBatteryLevel)
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.CatalogImportErrorDTO;
+import com.example.drones.dto.CatalogImportResultDTO;
+import com.example.drones.enums.CatalogFormat;
+import com.example.drones.exception.CheckException;
+import com.example.drones.model.CatalogItem;
+import com.example.drones.repository.CatalogItemRepository;
+import com.example.drones.validation.MedicationValidator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class CatalogImportServiceTest {
+    private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    @Autowired
+    private CatalogItemRepository catalogItemRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    private ExecutorService executor;
+    private CatalogImportService catalogImportService;
+
+    @BeforeEach
+    void init() {
+        executor = Executors.newFixedThreadPool(2);
+        // chunks of 2 lines, so a few chunks are validated concurrently
+        catalogImportService = new CatalogImportService(catalogItemRepository, jdbcTemplate, transactionTemplate,
+                objectMapper, executor, 2, 2);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void importCatalogCsvTest() throws IOException {
+        // GIVEN
+        jdbcTemplate.update("insert into medication_catalog (name, weight, code, created_at) "
+                + "values ('existing', 10, 'EX', current_timestamp)");
+        String csv = "code,name,weight,imageHash\n"
+                + "ASP_1,aspirin,20," + HASH + "\n"
+                + "IBU,ibuprofen,30,\n"
+                + "\n"
+                + "BAD-CODE,bad_code,10,\n"
+                + "X,bad name,10,\n"
+                + "X,no_weight,abc,\n"
+                + "X,too_few_columns\n"
+                + "PAR,paracetamol,0,\n"
+                + "DUP,aspirin,5,\n"
+                + "EX,existing,5,\n"
+                + "H,bad_hash,5,ABC\n"
+                + ",no_code,15,\n";
+
+        // WHEN
+        CatalogImportResultDTO result = catalogImportService.importCatalog(new StringReader(csv), CatalogFormat.CSV);
+
+        // THEN
+        assertEquals(3, result.getImported());
+        assertEquals(List.of(5, 6, 7, 8, 9, 10, 11, 12), result.getRejected().stream()
+                .map(CatalogImportErrorDTO::getLine)
+                .collect(Collectors.toList()));
+        assertEquals(MedicationValidator.CODE_MESSAGE, result.getRejected().get(0).getMessage());
+        assertEquals(MedicationValidator.NAME_MESSAGE, result.getRejected().get(1).getMessage());
+        assertEquals("Weight must be a number: abc", result.getRejected().get(2).getMessage());
+        assertEquals("Expected 4 columns, found 2", result.getRejected().get(3).getMessage());
+        assertNull(result.getRejected().get(3).getName());
+        assertEquals("Weight must be positive", result.getRejected().get(4).getMessage());
+        assertEquals("Name is duplicated in catalog file", result.getRejected().get(5).getMessage());
+        assertEquals("Medication with name: existing is already in catalog", result.getRejected().get(6).getMessage());
+        assertEquals("Image hash must be SHA-256 hex hash", result.getRejected().get(7).getMessage());
+
+        CatalogItem aspirin = catalogItemRepository.findByName("aspirin").orElseThrow();
+        assertEquals(20, aspirin.getWeight());
+        assertEquals("ASP_1", aspirin.getCode());
+        assertEquals(HASH, aspirin.getImageHash());
+        assertNull(catalogItemRepository.findByName("no_code").orElseThrow().getCode());
+        assertEquals(4, catalogItemRepository.count());
+    }
+
+    @Test
+    void importCatalogNdjsonTest() throws IOException {
+        // GIVEN
+        String ndjson = "{\"name\":\"aspirin\",\"weight\":20,\"code\":\"ASP\"}\n"
+                + "{\"name\":\"ibuprofen\",\"weight\":\n"
+                + "{\"name\":\"paracetamol\",\"weight\":15,\"imageHash\":\"" + HASH + "\"}";
+
+        // WHEN
+        CatalogImportResultDTO result = catalogImportService.importCatalog(new StringReader(ndjson),
+                CatalogFormat.NDJSON);
+
+        // THEN
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getRejected().size());
+        assertEquals(2, result.getRejected().get(0).getLine());
+        assertEquals(HASH, catalogItemRepository.findByName("paracetamol").orElseThrow().getImageHash());
+    }
+
+    @Test
+    void importCatalogCsvWithoutRequiredColumnsTest() {
+        // WHEN
+        CheckException exception = assertThrows(CheckException.class, () -> catalogImportService.importCatalog(
+                new StringReader("name,code\naspirin,ASP\n"), CatalogFormat.CSV));
+
+        // THEN
+        assertEquals("CSV header must contain columns: name, weight", exception.getMessage());
+        assertEquals(0, catalogItemRepository.count());
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.drones.service;
+
+import com.example.drones.dispatch.DispatchPlanner;
+import com.example.drones.dto.DispatchPlanDTO;
+import com.example.drones.dto.DispatchPlanRequestDTO;
+import com.example.drones.dto.DroneAssignmentDTO;
+import com.example.drones.dto.DroneDTO;
+import com.example.drones.dto.MedicationDTO;
+import com.example.drones.dto.UnassignedMedicationDTO;
+import com.example.drones.enums.DroneModel;
+import com.example.drones.enums.DroneState;
+import com.example.drones.exception.CheckException;
+import com.example.drones.validation.MedicationValidator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DispatchServiceTest {
+    @Mock
+    private DroneService droneService;
+    @Spy
+    private final MedicationValidator medicationValidator = new MedicationValidator();
+    @Spy
+    private final DispatchPlanner dispatchPlanner = new DispatchPlanner();
+    @InjectMocks
+    private DispatchService dispatchService;
+
+    @Test
+    void planTest() {
+        // GIVEN
+        when(droneService.getAllAvailableDrones()).thenReturn(List.of(
+                drone(1L, DroneModel.LIGHTWEIGHT, 100, 90),
+                drone(2L, DroneModel.HEAVYWEIGHT, 500, 90),
+                drone(3L, DroneModel.CRUISERWEIGHT, 400, 95)));
+        DispatchPlanRequestDTO request = new DispatchPlanRequestDTO(List.of(
+                medication("med-1", 300),
+                medication("med-2", 250),
+                medication("med-3", 200),
+                medication("med-4", 100),
+                medication("med-5", 50)), null);
+
+        // WHEN
+        DispatchPlanDTO plan = dispatchService.plan(request);
+
+        // THEN
+        assertEquals(List.of(3L, 2L), plan.getAssignments().stream()
+                .map(DroneAssignmentDTO::getDroneId)
+                .collect(Collectors.toList()));
+        assertEquals(List.of("med-1", "med-4"), names(plan.getAssignments().get(0)));
+        assertEquals(400, plan.getAssignments().get(0).getWeight());
+        assertEquals(List.of("med-2", "med-3", "med-5"), names(plan.getAssignments().get(1)));
+        assertEquals(2L, plan.getAssignments().get(1).getMedications().get(0).getDroneId());
+        assertEquals(List.of(), plan.getUnassigned());
+    }
+
+    @Test
+    void planPreferredModelTest() {
+        // GIVEN
+        when(droneService.getAllAvailableDrones()).thenReturn(List.of(
+                drone(1L, DroneModel.LIGHTWEIGHT, 100, 90),
+                drone(2L, DroneModel.HEAVYWEIGHT, 500, 50)));
+        DispatchPlanRequestDTO request = new DispatchPlanRequestDTO(List.of(medication("med-1", 100)),
+                DroneModel.HEAVYWEIGHT);
+
+        // WHEN
+        DispatchPlanDTO plan = dispatchService.plan(request);
+
+        // THEN
+        assertEquals(1, plan.getAssignments().size());
+        assertEquals(2L, plan.getAssignments().get(0).getDroneId());
+    }
+
+    @Test
+    void planUnassignedTest() {
+        // GIVEN
+        when(droneService.getAllAvailableDrones()).thenReturn(List.of(drone(1L, DroneModel.LIGHTWEIGHT, 100, 90)));
+        DispatchPlanRequestDTO request = new DispatchPlanRequestDTO(List.of(
+                medication("med-1", 150),
+                MedicationDTO.builder().name("med 2").code("code").weight(10).build(),
+                medication("med-3", -10),
+                medication("med-4", 100)), null);
+
+        // WHEN
+        DispatchPlanDTO plan = dispatchService.plan(request);
+
+        // THEN
+        assertEquals(List.of("med-4"), names(plan.getAssignments().get(0)));
+        assertEquals(List.of(
+                new UnassignedMedicationDTO(0, "med-1", DispatchService.NO_DRONE_MESSAGE),
+                new UnassignedMedicationDTO(1, "med 2", MedicationValidator.NAME_MESSAGE),
+                new UnassignedMedicationDTO(2, "med-3", MedicationValidator.ITEM_WEIGHT_MESSAGE)),
+                plan.getUnassigned());
+    }
+
+    @Test
+    void planLoadedDronesTest() {
+        // GIVEN
+        DroneDTO loaded = drone(1L, DroneModel.HEAVYWEIGHT, 500, 95);
+        loaded.setLoadedWeight(450);
+        when(droneService.getAllAvailableDrones()).thenReturn(List.of(loaded,
+                drone(2L, DroneModel.CRUISERWEIGHT, 400, 90)));
+        DispatchPlanRequestDTO request = new DispatchPlanRequestDTO(List.of(
+                medication("med-1", 100),
+                medication("med-2", 50)), null);
+
+        // WHEN
+        DispatchPlanDTO plan = dispatchService.plan(request);
+
+        // THEN
+        assertEquals(List.of(1L, 2L), plan.getAssignments().stream()
+                .map(DroneAssignmentDTO::getDroneId)
+                .collect(Collectors.toList()));
+        assertEquals(List.of("med-2"), names(plan.getAssignments().get(0)));
+        assertEquals(List.of("med-1"), names(plan.getAssignments().get(1)));
+    }
+
+    @Test
+    void planWithoutMedicationsTest() {
+        // GIVEN
+        DispatchPlanRequestDTO nullRequest = new DispatchPlanRequestDTO(null, null);
+        DispatchPlanRequestDTO emptyRequest = new DispatchPlanRequestDTO(List.of(), null);
+
+        // WHEN
+        CheckException nullThrown = assertThrows(CheckException.class, () -> dispatchService.plan(nullRequest));
+        CheckException emptyThrown = assertThrows(CheckException.class, () -> dispatchService.plan(emptyRequest));
+
+        // THEN
+        assertEquals(DispatchService.NO_MEDICATIONS_MESSAGE, nullThrown.getMessage());
+        assertEquals(DispatchService.NO_MEDICATIONS_MESSAGE, emptyThrown.getMessage());
+    }
+
+    private static DroneDTO drone(Long id, DroneModel droneModel, int weightLimit, int batteryCapacity) {
+        DroneDTO droneDTO = new DroneDTO();
+        droneDTO.setId(id);
+        droneDTO.setSerialNumber(String.valueOf(id));
+        droneDTO.setDroneModel(droneModel);
+        droneDTO.setWeightLimit(weightLimit);
+        droneDTO.setBatteryCapacity(batteryCapacity);
+        droneDTO.setDroneState(DroneState.IDLE);
+        return droneDTO;
+    }
+
+    private static MedicationDTO medication(String name, int weight) {
+        return MedicationDTO.builder()
+                .name(name)
+                .code("CODE")
+                .weight(weight)
+                .build();
+    }
+
+    private static List<String> names(DroneAssignmentDTO droneAssignment) {
+        return droneAssignment.getMedications().stream()
+                .map(MedicationDTO::getName)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.MedicationDTO;
+import com.example.drones.enums.DroneState;
+import com.example.drones.exception.RestException;
+import com.example.drones.index.FleetIndex;
+import com.example.drones.model.Drone;
+import com.example.drones.repository.DroneRepository;
+import com.example.drones.repository.MedicationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammer drones from many threads: every drone must be loaded exactly once
+ */
+@SpringBootTest
+@Sql(value = "/init_data/drone_repository_init_data.sql", config = @SqlConfig)
+class DroneLoadingConcurrencyTest {
+    private static final int THREADS = 32;
+
+    @Autowired
+    private DroneService droneService;
+    @Autowired
+    private DroneRepository droneRepository;
+    @Autowired
+    private MedicationRepository medicationRepository;
+    @Autowired
+    private FleetIndex fleetIndex;
+
+    @BeforeEach
+    void init() {
+        fleetIndex.rebuild();
+    }
+
+    @Test
+    void loadSameDroneConcurrentlyTest() throws Exception {
+        // WHEN
+        List<Boolean> results = runConcurrently(i -> load(4L, "same-" + i));
+
+        // THEN
+        assertEquals(1, results.stream().filter(Boolean::booleanValue).count());
+        Drone drone = droneRepository.findById(4L).orElseThrow();
+        assertEquals(DroneState.LOADED, drone.getDroneState());
+        // claim, loaded weight and LOADED state updates
+        assertEquals(3L, drone.getVersion());
+        assertEquals(10, drone.getLoadedWeight());
+        assertEquals(1, medicationRepository.findSummariesByDroneId(4L).size());
+        assertTrue(fleetIndex.check().isConsistent());
+    }
+
+    @Test
+    void loadDifferentDronesConcurrentlyTest() throws Exception {
+        // GIVEN
+        long[] droneIds = {3L, 4L, 6L, 8L};
+
+        // WHEN
+        List<Boolean> results = runConcurrently(i -> load(droneIds[i % droneIds.length], "different-" + i));
+
+        // THEN
+        assertEquals(droneIds.length, results.stream().filter(Boolean::booleanValue).count());
+        for (long droneId : droneIds) {
+            assertEquals(DroneState.LOADED, droneRepository.findById(droneId).orElseThrow().getDroneState());
+            assertEquals(1, medicationRepository.findSummariesByDroneId(droneId).size());
+        }
+        assertTrue(fleetIndex.check().isConsistent());
+    }
+
+    private boolean load(Long droneId, String name) {
+        MedicationDTO medicationDTO = MedicationDTO.builder()
+                .droneId(droneId)
+                .name(name)
+                .code("CODE")
+                .weight(10)
+                .build();
+        MockMultipartFile file = new MockMultipartFile("files", name.getBytes());
+        try {
+            droneService.addMedication(new ArrayList<>(List.of(medicationDTO)), List.of(file));
+            return true;
+        } catch (RestException e) {
+            return false;
+        }
+    }
+
+    private List<Boolean> runConcurrently(Task task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int index = i;
+            Callable<Boolean> callable = () -> {
+                start.await();
+                return task.run(index);
+            };
+            futures.add(executor.submit(callable));
+        }
+        start.countDown();
+
+        List<Boolean> results = new ArrayList<>();
+        for (Future<Boolean> future : futures) {
+            results.add(future.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        return results;
+    }
+
+    private interface Task {
+        boolean run(int index);
+    }
+}
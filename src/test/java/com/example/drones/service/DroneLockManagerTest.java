@@ -0,0 +1,118 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.LockStripeStatsDTO;
+import com.example.drones.exception.RestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DroneLockManagerTest {
+    private final DroneLockManager droneLockManager = new DroneLockManager(16, 200);
+
+    @Test
+    void stripesTest() {
+        assertEquals(16, droneLockManager.getStripes());
+        assertEquals(64, new DroneLockManager(50, 200).getStripes());
+        assertEquals(1, new DroneLockManager(1, 200).getStripes());
+        assertEquals(2, new DroneLockManager(2, 200).getStripes());
+        assertNotEquals(droneLockManager.stripe(1L), droneLockManager.stripe(2L));
+    }
+
+    @Test
+    void withLockSerializesSameDroneTest() throws Exception {
+        // GIVEN
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger maxInside = new AtomicInteger();
+
+        // WHEN
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> droneLockManager.withLock(1L, () -> {
+                maxInside.accumulateAndGet(inside.incrementAndGet(), Math::max);
+                sleep(5);
+                inside.decrementAndGet();
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        // THEN
+        assertEquals(1, maxInside.get());
+        List<LockStripeStatsDTO> stats = droneLockManager.getStats();
+        assertEquals(1, stats.size());
+        assertEquals(8, stats.get(0).getAcquisitions());
+        assertTrue(stats.get(0).getMaxWaitMicros() > 0);
+    }
+
+    @Test
+    void withLockRunsDifferentDronesInParallelTest() throws Exception {
+        // GIVEN
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch bothInside = new CountDownLatch(2);
+
+        // WHEN
+        Future<Boolean> first = executor.submit(() -> droneLockManager.withLock(1L, () -> await(bothInside)));
+        Future<Boolean> second = executor.submit(() -> droneLockManager.withLock(2L, () -> await(bothInside)));
+
+        // THEN
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    void withLockTimeoutFailTest() throws Exception {
+        // GIVEN
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> droneLockManager.withLock(1L, () -> {
+            locked.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        locked.await();
+
+        // WHEN
+        RestException thrown = assertThrows(RestException.class,
+                () -> droneLockManager.withLock(1L, () -> {
+                }));
+
+        // THEN
+        assertEquals("Drone with id: 1 is busy, try again later", thrown.getMessage());
+        release.countDown();
+        executor.shutdown();
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.drones.service;
+
+import com.example.drones.index.FleetIndex;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guard against N+1 selects: count SQL statements per read endpoint with Hibernate statistics
+ */
+// own in-memory database: schema of a shared one is dropped by the first closed context
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.url=jdbc:h2:mem:statisticsdb;DB_CLOSE_ON_EXIT=FALSE"
+})
+@Sql(value = "/init_data/medication_repository_init_data.sql", config = @SqlConfig)
+class DroneServiceStatementCountTest {
+    @Autowired
+    private DroneService droneService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private FleetIndex fleetIndex;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void init() {
+        fleetIndex.rebuild();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void getAllAvailableDronesTest() {
+        // WHEN
+        droneService.getAllAvailableDrones();
+
+        // THEN
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getDroneBatteryLevelTest() {
+        // WHEN
+        droneService.getDroneBatteryLevel(2L);
+
+        // THEN
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void getAllDroneMedicationsTest() {
+        // WHEN
+        droneService.getAllDroneMedications(2L);
+
+        // THEN
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllDroneMedicationsCachedTest() {
+        // GIVEN
+        droneService.getAllDroneMedications(2L);
+        droneService.getAllDroneMedicationSummaries(2L);
+        statistics.clear();
+
+        // WHEN
+        droneService.getAllDroneMedications(2L);
+        droneService.getAllDroneMedicationSummaries(2L);
+
+        // THEN
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllDroneMedicationsOfEmptyDroneTest() {
+        // WHEN
+        droneService.getAllDroneMedications(0L);
+
+        // THEN
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getAllDroneMedicationSummariesTest() {
+        // WHEN
+        droneService.getAllDroneMedicationSummaries(2L);
+
+        // THEN
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -1,40 +1,63 @@
 package com.example.drones.service;
 
+import com.example.drones.dto.DroneBatchRegisterResultDTO;
 import com.example.drones.dto.DroneDTO;
+import com.example.drones.dto.DronePageDTO;
 import com.example.drones.dto.DroneRegisterDTO;
+import com.example.drones.dto.DroneRegisterErrorDTO;
+import com.example.drones.dto.DroneSummaryDTO;
 import com.example.drones.dto.MedicationDTO;
+import com.example.drones.dto.MedicationSummaryDTO;
 import com.example.drones.enums.DroneModel;
 import com.example.drones.enums.DroneState;
 import com.example.drones.exception.CheckException;
 import com.example.drones.exception.RestException;
+import com.example.drones.index.DroneSnapshot;
+import com.example.drones.index.FleetIndex;
 import com.example.drones.mapping.DroneMapper;
 import com.example.drones.mapping.DroneMapperImpl;
 import com.example.drones.mapping.MedicationMapper;
 import com.example.drones.mapping.MedicationMapperImpl;
+import com.example.drones.metrics.DroneMetrics;
 import com.example.drones.model.Drone;
 import com.example.drones.repository.DroneRepository;
+import com.example.drones.storage.MedicationImageStore;
 import org.junit.jupiter.api.BeforeEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -44,6 +67,7 @@ import static org.mockito.Mockito.when;
  */
 @ExtendWith(MockitoExtension.class)
 class DroneServiceTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     @Spy
     private final MedicationMapper medicationMapper = new MedicationMapperImpl();
     @Spy
@@ -52,6 +76,23 @@ class DroneServiceTest {
     private DroneRepository droneRepository;
     @Mock
     private MedicationService medicationService;
+    @Mock
+    private MedicationImageStore medicationImageStore;
+    @Mock
+    private FleetIndex fleetIndex;
+    @Mock
+    private TelemetryService telemetryService;
+    @Mock
+    private BatteryHistoryService batteryHistoryService;
+    @Mock
+    private OutboxService outboxService;
+    @Spy
+    private final TransactionTemplate transactionTemplate =
+            new TransactionTemplate(mock(PlatformTransactionManager.class));
+    @Spy
+    private final DroneLockManager droneLockManager = new DroneLockManager(16, 1000);
+    @Spy
+    private final DroneMetrics droneMetrics = new DroneMetrics(meterRegistry);
     @InjectMocks
     private DroneService droneService;
 
@@ -131,6 +172,7 @@ class DroneServiceTest {
 
         // THEN
         verify(droneRepository, times(1)).save(any());
+        verify(fleetIndex, times(1)).update(DroneSnapshot.of(drone));
         assertEquals(registerDTO.getSerialNumber(), savedDrone.getSerialNumber());
         assertEquals(registerDTO.getDroneModel(), savedDrone.getDroneModel());
         assertEquals(registerDTO.getBatteryCapacity(), savedDrone.getBatteryCapacity());
@@ -138,6 +180,114 @@ class DroneServiceTest {
         assertEquals(DroneState.IDLE, savedDrone.getDroneState());
     }
 
+    @Test
+    void registerBatchTest() {
+        // GIVEN
+        List<DroneRegisterDTO> registerDTOs = List.of(
+                registerDTO("1", 80),
+                registerDTO("2", 0),
+                registerDTO("1", 80),
+                registerDTO("3", 80),
+                registerDTO("4", 90));
+
+        when(droneRepository.findExistingSerialNumbers(List.of("1", "3", "4"))).thenReturn(List.of("3"));
+        when(droneRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // WHEN
+        DroneBatchRegisterResultDTO result = droneService.registerBatch(registerDTOs.iterator());
+
+        // THEN
+        verify(droneRepository, times(1)).saveAll(argThat(drones -> ((List<?>) drones).size() == 2));
+        assertEquals(2, result.getRegistered().size());
+        assertEquals("1", result.getRegistered().get(0).getSerialNumber());
+        assertEquals(DroneState.IDLE, result.getRegistered().get(0).getDroneState());
+        assertEquals("4", result.getRegistered().get(1).getSerialNumber());
+        assertEquals(List.of(
+                new DroneRegisterErrorDTO(1, null, "Battery capacity can't be more than 100 or less than 1"),
+                new DroneRegisterErrorDTO(2, "1", "Serial number is duplicated in batch"),
+                new DroneRegisterErrorDTO(3, "3", "Drone with serial number: 3 is already registered")),
+                result.getFailed());
+    }
+
+    @Test
+    void registerBatchConcurrentDuplicateTest() {
+        // GIVEN
+        List<DroneRegisterDTO> registerDTOs = List.of(
+                registerDTO("1", 80),
+                registerDTO("2", 80),
+                registerDTO("3", 80));
+
+        when(droneRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("UniqueSerialNumber"));
+        when(droneRepository.save(any(Drone.class))).thenAnswer(invocation -> {
+            Drone drone = invocation.getArgument(0);
+            if ("2".equals(drone.getSerialNumber())) {
+                throw new DataIntegrityViolationException("UniqueSerialNumber");
+            }
+            return drone;
+        });
+
+        // WHEN
+        DroneBatchRegisterResultDTO result = droneService.registerBatch(registerDTOs.iterator());
+
+        // THEN
+        assertEquals(List.of("1", "3"), result.getRegistered().stream()
+                .map(DroneDTO::getSerialNumber)
+                .collect(Collectors.toList()));
+        assertEquals(List.of(new DroneRegisterErrorDTO(1, "2", "Drone with serial number: 2 is already registered")),
+                result.getFailed());
+        verify(fleetIndex, times(2)).update(any());
+    }
+
+    @Test
+    void registerBatchByChunksTest() {
+        // GIVEN
+        List<DroneRegisterDTO> registerDTOs = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            registerDTOs.add(registerDTO(String.valueOf(i), 80));
+        }
+
+        when(droneRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // WHEN
+        DroneBatchRegisterResultDTO result = droneService.registerBatch(registerDTOs.iterator());
+
+        // THEN
+        verify(droneRepository, times(3)).saveAll(anyList());
+        assertEquals(120, result.getRegistered().size());
+        assertEquals(0, result.getFailed().size());
+    }
+
+    @Test
+    void registerBatchReadFailTest() {
+        // GIVEN
+        Iterator<DroneRegisterDTO> registerDTOs = new Iterator<>() {
+            private int read;
+
+            @Override
+            public boolean hasNext() {
+                if (read == 1) {
+                    throw new IllegalStateException("Unexpected end of stream");
+                }
+                return true;
+            }
+
+            @Override
+            public DroneRegisterDTO next() {
+                read++;
+                return registerDTO("1", 80);
+            }
+        };
+
+        when(droneRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // WHEN
+        DroneBatchRegisterResultDTO result = droneService.registerBatch(registerDTOs);
+
+        // THEN
+        assertEquals(1, result.getRegistered().size());
+        assertEquals(List.of(new DroneRegisterErrorDTO(1, null, "Unexpected end of stream")), result.getFailed());
+    }
+
     @Test
     void addMedicationFailEmptyDTOsTest() {
         // WHEN
@@ -169,7 +319,7 @@ class DroneServiceTest {
     }
 
     @Test
-    void addMedicationTest() {
+    void addMedicationTest() throws IOException {
         // GIVEN
         Drone drone = Drone.builder()
                 .id(1L)
@@ -181,25 +331,28 @@ class DroneServiceTest {
                 .build();
 
         when(droneRepository.findById(1L)).thenReturn(Optional.of(drone));
+        when(medicationImageStore.store(any())).thenReturn("hash");
+        when(droneRepository.claimForLoading(1L, 25)).thenReturn(1);
+        when(droneRepository.updateDroneState(eq(1L), eq(DroneState.LOADING), eq(DroneState.LOADED), any())).thenReturn(1);
         when(medicationService.addMedications(anyList(), any())).thenReturn(List.of(medicationDTO));
 
         // WHEN
         droneService.addMedication(List.of(medicationDTO), List.of(createMultipartFile()));
 
         // THEN
+        assertEquals("hash", medicationDTO.getImageHash());
         assertEquals(DroneState.LOADED, drone.getDroneState());
-        verify(droneRepository, times(2)).save(drone);
+        verify(droneRepository, times(1)).claimForLoading(1L, 25);
+        verify(droneRepository, times(1)).updateDroneState(eq(1L), eq(DroneState.LOADING), eq(DroneState.LOADED), any());
+        verify(droneLockManager, times(1)).withLock(eq(1L), any(Runnable.class));
+        verify(outboxService, times(1)).stateChanged(1L, DroneState.IDLE, DroneState.LOADING, 50);
+        verify(outboxService, times(1)).stateChanged(1L, DroneState.LOADING, DroneState.LOADED, 50);
     }
 
     @Test
     void getAllDroneMedicationsTest() {
         // GIVEN
-        Drone drone = Drone.builder()
-                .id(1L)
-                .build();
-
-        when(droneRepository.findById(1L)).thenReturn(Optional.of(drone));
-        when(medicationService.getAllDroneMedications(drone)).thenReturn(List.of(new MedicationDTO()));
+        when(medicationService.getAllDroneMedications(1L)).thenReturn(List.of(new MedicationDTO()));
 
         // WHEN
         List<MedicationDTO> allDroneMedications = droneService.getAllDroneMedications(1L);
@@ -208,36 +361,125 @@ class DroneServiceTest {
         assertEquals(1, allDroneMedications.size());
     }
 
+    @Test
+    void getAllDroneMedicationsFailNoDroneTest() {
+        // GIVEN
+        when(medicationService.getAllDroneMedications(1L)).thenReturn(List.of());
+        when(droneRepository.existsById(1L)).thenReturn(false);
+
+        // WHEN
+        RestException thrown = assertThrows(RestException.class,
+                () -> droneService.getAllDroneMedications(1L));
+
+        // THEN
+        assertEquals("No drone found with id: 1", thrown.getMessage());
+    }
+
+    @Test
+    void getAllDroneMedicationSummariesTest() {
+        // GIVEN
+        when(medicationService.getAllDroneMedicationSummaries(1L)).thenReturn(List.of(new MedicationSummaryDTO()));
+
+        // WHEN
+        List<MedicationSummaryDTO> summaries = droneService.getAllDroneMedicationSummaries(1L);
+
+        // THEN
+        assertEquals(1, summaries.size());
+    }
+
+    @Test
+    void getAllDroneMedicationSummariesFailNoDroneTest() {
+        // GIVEN
+        when(medicationService.getAllDroneMedicationSummaries(1L)).thenReturn(List.of());
+        when(droneRepository.existsById(1L)).thenReturn(false);
+
+        // WHEN
+        RestException thrown = assertThrows(RestException.class,
+                () -> droneService.getAllDroneMedicationSummaries(1L));
+
+        // THEN
+        assertEquals("No drone found with id: 1", thrown.getMessage());
+    }
+
     @Test
     void getAllAvailableDronesTest() {
         // GIVEN
-        Drone drone = Drone.builder()
-                .id(1L)
-                .build();
+        DroneSnapshot drone = new DroneSnapshot(1L, "1", DroneModel.HEAVYWEIGHT, 500, 0, 80, DroneState.IDLE);
 
-        when(droneRepository.getAllAvailableDrones(25)).thenReturn(List.of(drone));
+        when(fleetIndex.findAvailable(25)).thenReturn(List.of(drone));
 
         // WHEN
         List<DroneDTO> allAvailableDrones = droneService.getAllAvailableDrones();
 
         // THEN
         assertEquals(1, allAvailableDrones.size());
+        assertEquals(1L, allAvailableDrones.get(0).getId());
+        assertEquals(80, allAvailableDrones.get(0).getBatteryCapacity());
+        assertEquals(DroneState.IDLE, allAvailableDrones.get(0).getDroneState());
     }
 
     @Test
-    void getDroneBatteryLevelTest() {
+    void getDronesTest() {
         // GIVEN
-        Drone drone = Drone.builder()
-                .id(1L)
-                .batteryCapacity(80)
-                .build();
+        DroneSummaryDTO first = new DroneSummaryDTO(3L, "3", DroneModel.HEAVYWEIGHT, 500, 80, DroneState.IDLE, 0);
+        DroneSummaryDTO second = new DroneSummaryDTO(7L, "7", DroneModel.HEAVYWEIGHT, 500, 60, DroneState.IDLE, 0);
+        DroneSummaryDTO third = new DroneSummaryDTO(9L, "9", DroneModel.HEAVYWEIGHT, 500, 50, DroneState.IDLE, 0);
 
-        when(droneRepository.findById(1L)).thenReturn(Optional.of(drone));
+        when(droneRepository.findSummaries(DroneState.IDLE, null, 50, 1L, 3)).thenReturn(List.of(first, second, third));
+        when(droneRepository.findSummaries(DroneState.IDLE, null, 50, 7L, 3)).thenReturn(List.of(third));
+
+        // WHEN
+        DronePageDTO page = droneService.getDrones(DroneState.IDLE, null, 50, 1L, 2);
+        DronePageDTO lastPage = droneService.getDrones(DroneState.IDLE, null, 50, page.getNext(), 2);
+
+        // THEN
+        assertEquals(List.of(first, second), page.getDrones());
+        assertEquals(7L, page.getNext());
+        assertEquals(List.of(third), lastPage.getDrones());
+        assertNull(lastPage.getNext());
+    }
+
+    @Test
+    void getDronesFailLimitTest() {
+        // WHEN
+        CheckException thrown = assertThrows(CheckException.class,
+                () -> droneService.getDrones(null, null, null, null, 1001));
+
+        // THEN
+        assertEquals("Limit can't be more than 1000 or less than 1", thrown.getMessage());
+        verify(droneRepository, never()).findSummaries(any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getDroneBatteryLevelTest() {
+        // GIVEN
+        when(droneRepository.findBatteryCapacityById(1L)).thenReturn(Optional.of(80));
 
         // THEN
         assertEquals(80, droneService.getDroneBatteryLevel(1L));
     }
 
+    @Test
+    void getDroneBatteryLevelFromTelemetryTest() {
+        // GIVEN
+        when(telemetryService.findBatteryLevel(1L)).thenReturn(Optional.of(60));
+
+        // THEN
+        assertEquals(60, droneService.getDroneBatteryLevel(1L));
+        verify(droneRepository, never()).findBatteryCapacityById(any());
+    }
+
+    @Test
+    void getDroneBatteryLevelFromIndexTest() {
+        // GIVEN
+        when(fleetIndex.get(1L)).thenReturn(new DroneSnapshot(1L, "1", DroneModel.LIGHTWEIGHT, 100, 0, 70,
+                DroneState.IDLE));
+
+        // THEN
+        assertEquals(70, droneService.getDroneBatteryLevel(1L));
+        verify(droneRepository, never()).findBatteryCapacityById(any());
+    }
+
     @Test
     void idleDroneTest() {
         // GIVEN
@@ -246,12 +488,34 @@ class DroneServiceTest {
                 .droneState(DroneState.RETURNING)
                 .build();
 
+        when(droneRepository.updateDroneState(eq(1L), eq(DroneState.RETURNING), eq(DroneState.IDLE), any())).thenReturn(1);
+
         // WHEN
         droneService.idleDrone(drone);
 
         // THEN
         assertEquals(DroneState.IDLE, drone.getDroneState());
-        verify(droneRepository, times(1)).save(drone);
+        verify(droneRepository, times(1)).updateDroneState(eq(1L), eq(DroneState.RETURNING), eq(DroneState.IDLE), any());
+    }
+
+    @Test
+    void idleDroneConcurrentlyChangedFailTest() {
+        // GIVEN
+        Drone drone = Drone.builder()
+                .id(1L)
+                .droneState(DroneState.RETURNING)
+                .build();
+
+        when(droneRepository.updateDroneState(eq(1L), eq(DroneState.RETURNING), eq(DroneState.IDLE), any())).thenReturn(0);
+
+        // WHEN
+        RestException thrown = assertThrows(RestException.class,
+                () -> droneService.idleDrone(drone));
+
+        // THEN
+        assertEquals("Drone with id: 1 isn't in state RETURNING", thrown.getMessage());
+        verify(outboxService, never()).stateChanged(any(), any(), any(), anyInt());
+        assertEquals(DroneState.RETURNING, drone.getDroneState());
     }
 
     @Test
@@ -296,12 +560,57 @@ class DroneServiceTest {
                 .droneState(DroneState.IDLE)
                 .build();
 
+        when(droneRepository.claimForLoading(1L, 25)).thenReturn(1);
+
+        // WHEN
+        droneService.loadingDrone(drone);
+
+        // THEN
+        assertEquals(DroneState.LOADING, drone.getDroneState());
+        verify(droneRepository, times(1)).claimForLoading(1L, 25);
+        verify(fleetIndex, times(1)).update(eq(1L), any());
+    }
+
+    @Test
+    void loadingDroneClaimedConcurrentlyFailTest() {
+        // GIVEN
+        Drone drone = Drone.builder()
+                .id(1L)
+                .batteryCapacity(80)
+                .droneState(DroneState.IDLE)
+                .build();
+
+        when(droneRepository.claimForLoading(1L, 25)).thenReturn(0);
+
+        // WHEN
+        RestException thrown = assertThrows(RestException.class,
+                () -> droneService.loadingDrone(drone));
+
+        // THEN
+        assertEquals("Drone with id: 1 isn't available for loading", thrown.getMessage());
+        assertEquals(DroneState.IDLE, drone.getDroneState());
+        verify(fleetIndex, never()).update(eq(1L), any());
+    }
+
+    @Test
+    void loadingDroneRetryOnLockTest() {
+        // GIVEN
+        Drone drone = Drone.builder()
+                .id(1L)
+                .batteryCapacity(80)
+                .droneState(DroneState.IDLE)
+                .build();
+
+        when(droneRepository.claimForLoading(1L, 25))
+                .thenThrow(new CannotAcquireLockException("Timeout trying to lock table"))
+                .thenReturn(1);
+
         // WHEN
         droneService.loadingDrone(drone);
 
         // THEN
         assertEquals(DroneState.LOADING, drone.getDroneState());
-        verify(droneRepository, times(1)).save(drone);
+        verify(droneRepository, times(2)).claimForLoading(1L, 25);
     }
 
     @Test
@@ -313,20 +622,48 @@ class DroneServiceTest {
                 .droneState(DroneState.LOADING)
                 .build();
 
+        when(droneRepository.updateDroneState(eq(1L), eq(DroneState.LOADING), eq(DroneState.LOADED), any())).thenReturn(1);
+
         // WHEN
         droneService.loadedDrone(drone);
 
         // THEN
         assertEquals(DroneState.LOADED, drone.getDroneState());
-        verify(droneRepository, times(1)).save(drone);
+        verify(droneRepository, times(1)).updateDroneState(eq(1L), eq(DroneState.LOADING), eq(DroneState.LOADED), any());
+        assertEquals(1, meterRegistry.get(DroneMetrics.TRANSITIONS)
+                .tags("from", "LOADING", "to", "LOADED").counter().count());
     }
 
     @Test
-    void loadMedicationsFailInMedicationServiceTest() {
+    void loadDroneBatteryFailMetricsTest() {
         // GIVEN
         Drone drone = Drone.builder()
                 .id(1L)
+                .batteryCapacity(15)
                 .droneState(DroneState.IDLE)
+                .build();
+        MedicationDTO medicationDTO = MedicationDTO.builder()
+                .droneId(1L)
+                .build();
+
+        when(droneRepository.findById(1L)).thenReturn(Optional.of(drone));
+
+        // WHEN
+        assertThrows(RestException.class, () -> droneService.loadDrone(List.of(medicationDTO)));
+
+        // THEN
+        assertEquals(1, meterRegistry.get(DroneMetrics.REJECTIONS)
+                .tag("reason", "LOW_BATTERY").counter().count());
+        assertEquals(1, meterRegistry.get(DroneMetrics.LOADING)
+                .tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void loadMedicationsFailInMedicationServiceTest() {
+        // GIVEN
+        Drone drone = Drone.builder()
+                .id(1L)
+                .droneState(DroneState.LOADING)
                 .batteryCapacity(50)
                 .build();
         MedicationDTO medicationDTO = MedicationDTO.builder()
@@ -334,6 +671,7 @@ class DroneServiceTest {
                 .build();
 
         when(medicationService.addMedications(anyList(), any())).thenThrow(new CheckException("Some exception in med service"));
+        when(droneRepository.updateDroneState(eq(1L), eq(DroneState.LOADING), eq(DroneState.IDLE), any())).thenReturn(1);
 
         // WHEN
         RestException thrown = assertThrows(RestException.class,
@@ -344,12 +682,59 @@ class DroneServiceTest {
         assertEquals(DroneState.IDLE, drone.getDroneState());
     }
 
+    @Test
+    void loadMedicationsFailOnSaveTest() {
+        // GIVEN
+        Drone drone = Drone.builder()
+                .id(1L)
+                .droneState(DroneState.LOADING)
+                .batteryCapacity(50)
+                .build();
+        MedicationDTO medicationDTO = MedicationDTO.builder()
+                .droneId(1L)
+                .build();
+
+        when(medicationService.addMedications(anyList(), any())).thenThrow(new DataIntegrityViolationException("UniqueName"));
+        when(droneRepository.updateDroneState(eq(1L), eq(DroneState.LOADING), eq(DroneState.IDLE), any())).thenReturn(1);
+
+        // WHEN
+        assertThrows(DataIntegrityViolationException.class,
+                () -> droneService.loadMedications(List.of(medicationDTO), drone));
+
+        // THEN
+        assertEquals(DroneState.IDLE, drone.getDroneState());
+    }
+
+    @Test
+    void loadMedicationsFailAndIdleFailTest() {
+        // GIVEN
+        Drone drone = Drone.builder()
+                .id(1L)
+                .droneState(DroneState.LOADING)
+                .batteryCapacity(50)
+                .build();
+        MedicationDTO medicationDTO = MedicationDTO.builder()
+                .droneId(1L)
+                .build();
+
+        when(medicationService.addMedications(anyList(), any())).thenThrow(new DataIntegrityViolationException("UniqueName"));
+        when(droneRepository.updateDroneState(eq(1L), eq(DroneState.LOADING), eq(DroneState.IDLE), any())).thenReturn(0);
+
+        // WHEN
+        DataIntegrityViolationException thrown = assertThrows(DataIntegrityViolationException.class,
+                () -> droneService.loadMedications(List.of(medicationDTO), drone));
+
+        // THEN
+        assertEquals(1, thrown.getSuppressed().length);
+        assertEquals("Drone with id: 1 isn't in state LOADING", thrown.getSuppressed()[0].getMessage());
+    }
+
     @Test
     void loadMedicationsTest() {
         // GIVEN
         Drone drone = Drone.builder()
                 .id(1L)
-                .droneState(DroneState.IDLE)
+                .droneState(DroneState.LOADING)
                 .batteryCapacity(50)
                 .build();
         MedicationDTO medicationDTO = MedicationDTO.builder()
@@ -357,13 +742,23 @@ class DroneServiceTest {
                 .build();
 
         when(medicationService.addMedications(anyList(), any())).thenReturn(List.of(medicationDTO));
+        when(droneRepository.updateDroneState(eq(1L), eq(DroneState.LOADING), eq(DroneState.LOADED), any())).thenReturn(1);
 
         // WHEN
         droneService.loadMedications(List.of(medicationDTO), drone);
 
         // THEN
         assertEquals(DroneState.LOADED, drone.getDroneState());
-        verify(droneRepository, times(1)).save(drone);
+        verify(droneRepository, times(1)).updateDroneState(eq(1L), eq(DroneState.LOADING), eq(DroneState.LOADED), any());
+    }
+
+    private static DroneRegisterDTO registerDTO(String serialNumber, int batteryCapacity) {
+        return DroneRegisterDTO.builder()
+                .serialNumber(serialNumber)
+                .droneModel(DroneModel.LIGHTWEIGHT)
+                .batteryCapacity(batteryCapacity)
+                .weightLimit(100)
+                .build();
     }
 
     private MultipartFile createMultipartFile() {
@@ -0,0 +1,65 @@
+package com.example.drones.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Sql(value = "/init_data/medication_repository_init_data.sql", config = @SqlConfig)
+@Transactional
+class ExportServiceTest {
+    @Autowired
+    private ExportService exportService;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportFleetTest() throws IOException {
+        // GIVEN
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // WHEN
+        exportService.exportFleet(out);
+
+        // THEN
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        List<JsonNode> records = new ArrayList<>();
+        for (String line : lines) {
+            assertTrue(line.startsWith("{") && line.endsWith("}"));
+            records.add(objectMapper.readTree(line));
+        }
+        assertEquals(13, records.size());
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 0L, 1L, 2L), records.stream()
+                .map(record -> record.get("id").asLong())
+                .collect(Collectors.toList()));
+        assertTrue(records.subList(0, 10).stream()
+                .allMatch(record -> ExportService.DRONE_TYPE.equals(record.get("type").asText())));
+
+        JsonNode drone = records.get(2);
+        assertEquals("LIGHTWEIGHT", drone.get("droneModel").asText());
+        assertEquals("LOADED", drone.get("droneState").asText());
+        assertEquals(75, drone.get("batteryCapacity").asInt());
+        assertEquals(80, drone.get("loadedWeight").asInt());
+
+        JsonNode medication = records.get(12);
+        assertEquals(ExportService.MEDICATION_TYPE, medication.get("type").asText());
+        assertEquals("med-2", medication.get("name").asText());
+        assertEquals("hash-2", medication.get("imageHash").asText());
+        assertEquals(5L, medication.get("droneId").asLong());
+    }
+}
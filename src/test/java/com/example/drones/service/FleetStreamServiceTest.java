@@ -0,0 +1,237 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.DroneDTO;
+import com.example.drones.dto.DroneEventDTO;
+import com.example.drones.enums.DroneEventType;
+import com.example.drones.enums.DroneModel;
+import com.example.drones.enums.DroneState;
+import com.example.drones.index.DroneSnapshot;
+import com.example.drones.index.FleetChangeEvent;
+import com.example.drones.index.FleetIndex;
+import com.example.drones.mapping.DroneMapper;
+import com.example.drones.repository.DroneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FleetStreamServiceTest {
+    private static final List<DroneDTO> SNAPSHOT = List.of(new DroneDTO());
+
+    @Mock
+    private FleetIndex fleetIndex;
+    @Mock
+    private DroneMapper droneMapper;
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private FleetStreamService fleetStreamService;
+
+    @BeforeEach
+    void init() {
+        fleetStreamService = new FleetStreamService(fleetIndex, droneMapper, tasks::add, 2, 0);
+        when(droneMapper.snapshotsToDTOs(any())).thenReturn(SNAPSHOT);
+    }
+
+    @Test
+    void subscribeSendsSnapshotTest() {
+        // GIVEN
+        RecordingEmitter emitter = new RecordingEmitter();
+
+        // WHEN
+        fleetStreamService.subscribe(emitter, snapshot -> true);
+        runTasks();
+
+        // THEN
+        assertEquals(List.of(FleetStreamService.SNAPSHOT_EVENT), emitter.names);
+        assertEquals(List.of(SNAPSHOT), emitter.data);
+        assertEquals(1, fleetStreamService.getSubscribersCount());
+    }
+
+    @Test
+    void changeFilteredTest() {
+        // GIVEN
+        RecordingEmitter emitter = subscribed(snapshot -> snapshot.getDroneState() == DroneState.IDLE);
+
+        // WHEN
+        fleetStreamService.onFleetChange(change(DroneState.LOADING, DroneState.LOADED, 50));
+        fleetStreamService.onFleetChange(change(DroneState.IDLE, DroneState.LOADING, 50));
+        fleetStreamService.onFleetChange(change(DroneState.IDLE, DroneState.IDLE, 40));
+        runTasks();
+
+        // THEN
+        assertEquals(List.of(FleetStreamService.CHANGE_EVENT, FleetStreamService.CHANGE_EVENT), emitter.names);
+        DroneEventDTO left = (DroneEventDTO) emitter.data.get(0);
+        assertEquals(DroneEventType.STATE, left.getType());
+        assertEquals(DroneState.IDLE, left.getPreviousState());
+        assertEquals(DroneState.LOADING, left.getDroneState());
+        DroneEventDTO battery = (DroneEventDTO) emitter.data.get(1);
+        assertEquals(DroneEventType.BATTERY, battery.getType());
+        assertEquals(40, battery.getBatteryCapacity());
+    }
+
+    @Test
+    void overflowSendsSnapshotTest() {
+        // GIVEN
+        RecordingEmitter emitter = subscribed(snapshot -> true);
+
+        // WHEN
+        fleetStreamService.onFleetChange(change(DroneState.IDLE, DroneState.IDLE, 90));
+        fleetStreamService.onFleetChange(change(DroneState.IDLE, DroneState.IDLE, 80));
+        fleetStreamService.onFleetChange(change(DroneState.IDLE, DroneState.IDLE, 70));
+        runTasks();
+
+        // THEN
+        assertEquals(List.of(FleetStreamService.SNAPSHOT_EVENT, FleetStreamService.CHANGE_EVENT,
+                FleetStreamService.CHANGE_EVENT), emitter.names);
+        assertEquals(SNAPSHOT, emitter.data.get(0));
+        assertEquals(80, ((DroneEventDTO) emitter.data.get(1)).getBatteryCapacity());
+        assertEquals(70, ((DroneEventDTO) emitter.data.get(2)).getBatteryCapacity());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void overflowDuringUpdateSendsUpdatedSnapshotTest() throws InterruptedException {
+        // GIVEN
+        DroneRepository droneRepository = mock(DroneRepository.class);
+        when(droneRepository.findAllSnapshots()).thenReturn(List.of(snapshot(100, DroneState.IDLE)));
+        AtomicBoolean drainConcurrently = new AtomicBoolean();
+        List<Thread> drainers = new ArrayList<>();
+        FleetStreamService[] service = new FleetStreamService[1];
+        FleetIndex index = new FleetIndex(droneRepository, event -> {
+            service[0].onFleetChange((FleetChangeEvent) event);
+            if (drainConcurrently.get()) {
+                // drain while the change is still being published, drainer waits for the drone's entry lock
+                Thread drainer = new Thread(this::runTasks);
+                drainers.add(drainer);
+                drainer.start();
+                try {
+                    drainer.join(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        index.rebuild();
+        service[0] = new FleetStreamService(index, droneMapper, tasks::add, 2, 0);
+        RecordingEmitter emitter = new RecordingEmitter();
+        service[0].subscribe(emitter, snapshot -> true);
+        runTasks();
+        emitter.clear();
+        index.update(1L, snapshot -> snapshot.withBatteryCapacity(90));
+        index.update(1L, snapshot -> snapshot.withBatteryCapacity(80));
+
+        // WHEN
+        drainConcurrently.set(true);
+        index.update(1L, snapshot -> snapshot.withBatteryCapacity(70));
+        drainers.get(0).join();
+
+        // THEN
+        ArgumentCaptor<List<DroneSnapshot>> snapshots = ArgumentCaptor.forClass(List.class);
+        verify(droneMapper, times(2)).snapshotsToDTOs(snapshots.capture());
+        assertEquals(List.of(snapshot(70, DroneState.IDLE)), snapshots.getAllValues().get(1));
+        assertEquals(List.of(FleetStreamService.SNAPSHOT_EVENT, FleetStreamService.CHANGE_EVENT,
+                FleetStreamService.CHANGE_EVENT), emitter.names);
+        assertEquals(70, ((DroneEventDTO) emitter.data.get(2)).getBatteryCapacity());
+    }
+
+    @Test
+    void disconnectedSubscriberRemovedTest() {
+        // GIVEN
+        RecordingEmitter emitter = subscribed(snapshot -> true);
+        emitter.disconnected = true;
+
+        // WHEN
+        fleetStreamService.onFleetChange(change(DroneState.IDLE, DroneState.IDLE, 90));
+        runTasks();
+
+        // THEN
+        assertEquals(0, fleetStreamService.getSubscribersCount());
+    }
+
+    @Test
+    void filterByStateAndModelTest() {
+        // GIVEN
+        RecordingEmitter emitter = new RecordingEmitter();
+        fleetStreamService.subscribe(Set.of(DroneState.IDLE), Set.of(DroneModel.HEAVYWEIGHT));
+        fleetStreamService.subscribe(emitter, snapshot -> true);
+        runTasks();
+        emitter.clear();
+
+        // WHEN
+        fleetStreamService.onFleetChange(change(DroneState.IDLE, DroneState.IDLE, 90));
+
+        // THEN
+        assertEquals(1, tasks.size());
+    }
+
+    private RecordingEmitter subscribed(Predicate<DroneSnapshot> filter) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        fleetStreamService.subscribe(emitter, filter);
+        runTasks();
+        emitter.clear();
+        return emitter;
+    }
+
+    private void runTasks() {
+        for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+            task.run();
+        }
+    }
+
+    private static FleetChangeEvent change(DroneState from, DroneState to, int batteryCapacity) {
+        return new FleetChangeEvent(snapshot(100, from), snapshot(batteryCapacity, to));
+    }
+
+    private static DroneSnapshot snapshot(int batteryCapacity, DroneState droneState) {
+        return new DroneSnapshot(1L, "1", DroneModel.LIGHTWEIGHT, 100, 0, batteryCapacity, droneState);
+    }
+
+    /**
+     * Emitter recording sent event names and data instead of writing them to response
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> names = new ArrayList<>();
+        private final List<Object> data = new ArrayList<>();
+        private boolean disconnected;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (disconnected) {
+                throw new IOException("Broken pipe");
+            }
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (MediaType.APPLICATION_JSON.equals(part.getMediaType())) {
+                    data.add(part.getData());
+                } else if (part.getData().toString().startsWith("event:")) {
+                    names.add(part.getData().toString().substring("event:".length()).split("\n")[0]);
+                }
+            }
+        }
+
+        void clear() {
+            names.clear();
+            data.clear();
+        }
+    }
+}
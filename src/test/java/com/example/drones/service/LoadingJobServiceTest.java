@@ -0,0 +1,180 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.LoadingJobDTO;
+import com.example.drones.dto.MedicationDTO;
+import com.example.drones.enums.LoadingJobStatus;
+import com.example.drones.exception.NotFoundException;
+import com.example.drones.exception.RestException;
+import com.example.drones.exception.ServiceUnavailableException;
+import com.example.drones.storage.MedicationImageStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LoadingJobServiceTest {
+    @Mock
+    private DroneService droneService;
+    @Mock
+    private MedicationService medicationService;
+    @Mock
+    private MedicationImageStore medicationImageStore;
+    @TempDir
+    Path spoolPath;
+
+    @Test
+    void submitCompletedTest() throws IOException {
+        // GIVEN
+        LoadingJobService loadingJobService = newService(Runnable::run, Duration.ofMinutes(10));
+        List<MedicationDTO> medicationDTOs = medicationDTOs();
+        when(medicationImageStore.store(any(InputStream.class))).thenReturn("hash");
+
+        // WHEN
+        LoadingJobDTO job = loadingJobService.submit(medicationDTOs, files());
+
+        // THEN
+        LoadingJobDTO completed = loadingJobService.getJob(job.getId());
+        assertEquals(LoadingJobStatus.COMPLETED, completed.getStatus());
+        assertEquals(1L, completed.getDroneId());
+        assertEquals(1, completed.getMedicationsCount());
+        assertEquals("hash", medicationDTOs.get(0).getImageHash());
+        verify(medicationService).checkMedicationFormats(medicationDTOs);
+        verify(droneService).loadDrone(medicationDTOs);
+        assertFalse(Files.exists(spoolPath.resolve(job.getId())));
+    }
+
+    @Test
+    void submitQueuedTest() {
+        // GIVEN
+        LoadingJobService loadingJobService = newService(runnable -> {
+        }, Duration.ofMinutes(10));
+
+        // WHEN
+        LoadingJobDTO job = loadingJobService.submit(medicationDTOs(), files());
+
+        // THEN
+        assertEquals(LoadingJobStatus.QUEUED, job.getStatus());
+        assertEquals(LoadingJobStatus.QUEUED, loadingJobService.getJob(job.getId()).getStatus());
+        assertEquals(1, spoolPath.resolve(job.getId()).toFile().list().length);
+    }
+
+    @Test
+    void submitFailedTest() throws IOException {
+        // GIVEN
+        LoadingJobService loadingJobService = newService(Runnable::run, Duration.ofMinutes(10));
+        List<MedicationDTO> medicationDTOs = medicationDTOs();
+        when(medicationImageStore.store(any(InputStream.class))).thenReturn("hash");
+        doThrow(new RestException("Drone with id: 1 isn't available for loading"))
+                .when(droneService).loadDrone(medicationDTOs);
+
+        // WHEN
+        LoadingJobDTO job = loadingJobService.submit(medicationDTOs, files());
+
+        // THEN
+        LoadingJobDTO failed = loadingJobService.getJob(job.getId());
+        assertEquals(LoadingJobStatus.FAILED, failed.getStatus());
+        assertEquals("Drone with id: 1 isn't available for loading", failed.getError());
+        assertFalse(Files.exists(spoolPath.resolve(job.getId())));
+    }
+
+    @Test
+    void submitValidationFailedTest() throws IOException {
+        // GIVEN
+        LoadingJobService loadingJobService = newService(Runnable::run, Duration.ofMinutes(10));
+        List<MedicationDTO> medicationDTOs = medicationDTOs();
+        doThrow(new RestException("Only letters, numbers, underscore, dash available for name"))
+                .when(medicationService).checkMedicationFormats(medicationDTOs);
+
+        // WHEN
+        LoadingJobDTO job = loadingJobService.submit(medicationDTOs, files());
+
+        // THEN
+        assertEquals(LoadingJobStatus.FAILED, loadingJobService.getJob(job.getId()).getStatus());
+        verify(medicationImageStore, never()).store(any(InputStream.class));
+        verify(droneService, never()).loadDrone(any());
+        assertFalse(Files.exists(spoolPath.resolve(job.getId())));
+    }
+
+    @Test
+    void submitRejectedTest() {
+        // GIVEN
+        LoadingJobService loadingJobService = newService(runnable -> {
+            throw new RejectedExecutionException();
+        }, Duration.ofMinutes(10));
+
+        // WHEN
+        ServiceUnavailableException thrown = assertThrows(ServiceUnavailableException.class,
+                () -> loadingJobService.submit(medicationDTOs(), files()));
+
+        // THEN
+        assertEquals("Loading queue is full, try again later", thrown.getMessage());
+        assertEquals(0, spoolPath.toFile().list().length);
+    }
+
+    @Test
+    void getJobNotFoundTest() {
+        // GIVEN
+        LoadingJobService loadingJobService = newService(Runnable::run, Duration.ofMinutes(10));
+
+        // WHEN
+        NotFoundException thrown = assertThrows(NotFoundException.class, () -> loadingJobService.getJob("1"));
+
+        // THEN
+        assertEquals("No loading job found with id: 1", thrown.getMessage());
+    }
+
+    @Test
+    void evictFinishedJobsTest() throws IOException, InterruptedException {
+        // GIVEN
+        LoadingJobService loadingJobService = newService(Runnable::run, Duration.ZERO);
+        when(medicationImageStore.store(any(InputStream.class))).thenReturn("hash");
+        LoadingJobDTO job = loadingJobService.submit(medicationDTOs(), files());
+        Thread.sleep(5);
+
+        // WHEN
+        loadingJobService.evictFinishedJobs();
+
+        // THEN
+        assertThrows(NotFoundException.class, () -> loadingJobService.getJob(job.getId()));
+    }
+
+    private LoadingJobService newService(Executor executor, Duration retention) {
+        return new LoadingJobService(droneService, medicationService, medicationImageStore,
+                executor, spoolPath, retention);
+    }
+
+    private static List<MedicationDTO> medicationDTOs() {
+        return List.of(MedicationDTO.builder()
+                .name("name")
+                .code("CODE")
+                .weight(10)
+                .droneId(1L)
+                .build());
+    }
+
+    private static List<MultipartFile> files() {
+        return List.of(new MockMultipartFile("files", "image.png", "image/png", new byte[]{1, 2, 3}));
+    }
+}
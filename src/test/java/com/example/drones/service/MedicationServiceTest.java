@@ -2,36 +2,65 @@ package com.example.drones.service;
 
 import com.example.drones.dto.MedicationDTO;
 import com.example.drones.exception.CheckException;
+import com.example.drones.exception.NotFoundException;
 import com.example.drones.mapping.MedicationMapper;
 import com.example.drones.mapping.MedicationMapperImpl;
+import com.example.drones.metrics.DroneMetrics;
 import com.example.drones.model.Drone;
 import com.example.drones.model.Medication;
+import com.example.drones.repository.DroneRepository;
 import com.example.drones.repository.MedicationRepository;
+import com.example.drones.storage.MedicationImageStore;
+import com.example.drones.storage.StoredImage;
+import com.example.drones.validation.MedicationValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * Check business-logic here better and faster with black-box method on mocks
  */
 @ExtendWith(MockitoExtension.class)
 class MedicationServiceTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     @Spy
     private final MedicationMapper medicationMapper = new MedicationMapperImpl();
     @Mock
     private MedicationRepository medicationRepository;
+    @Mock
+    private DroneRepository droneRepository;
+    @Mock
+    private MedicationImageStore medicationImageStore;
+    @Spy
+    private final MedicationValidator medicationValidator = new MedicationValidator();
+    @Spy
+    private final DroneMetrics droneMetrics = new DroneMetrics(meterRegistry);
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private OutboxService outboxService;
     @InjectMocks
     private MedicationService medicationService;
 
@@ -40,11 +69,13 @@ class MedicationServiceTest {
         // GIVEN
         List<MedicationDTO> medicationDTOs = List.of(MedicationDTO.builder()
                 .name("name!")
+                .weight(10)
                 .build());
 
         // WHEN
         CheckException thrown = assertThrows(CheckException.class,
-                () -> medicationService.addMedications(medicationDTOs, new Drone()));
+                () -> medicationService.addMedications(medicationDTOs,
+                        Drone.builder().weightLimit(100).build()));
 
         // THEN
         assertEquals("Only letters, numbers, underscore, dash available for name", thrown.getMessage());
@@ -56,11 +87,13 @@ class MedicationServiceTest {
         List<MedicationDTO> medicationDTOs = List.of(MedicationDTO.builder()
                 .name("name-1")
                 .code("CODE-1")
+                .weight(10)
                 .build());
 
         // WHEN
         CheckException thrown = assertThrows(CheckException.class,
-                () -> medicationService.addMedications(medicationDTOs, new Drone()));
+                () -> medicationService.addMedications(medicationDTOs,
+                        Drone.builder().weightLimit(100).build()));
 
         // THEN
         assertEquals("Only upper case letters, underscore, numbers available for code", thrown.getMessage());
@@ -90,6 +123,36 @@ class MedicationServiceTest {
 
         // THEN
         assertEquals("Maximum weight capacity for drone has been reached", thrown.getMessage());
+        assertEquals(1, meterRegistry.get(DroneMetrics.REJECTIONS)
+                .tag("reason", "OVERWEIGHT").counter().count());
+    }
+
+    @Test
+    void addMedicationsFailAllViolationsTest() {
+        // GIVEN
+        List<MedicationDTO> medicationDTOs = List.of(
+                MedicationDTO.builder()
+                        .name("name 1")
+                        .code("CODE_1")
+                        .weight(200)
+                        .build(),
+                MedicationDTO.builder()
+                        .name("name-2")
+                        .code("code_2")
+                        .weight(200)
+                        .build());
+        Drone drone = Drone.builder()
+                .weightLimit(300)
+                .build();
+
+        // WHEN
+        CheckException thrown = assertThrows(CheckException.class,
+                () -> medicationService.addMedications(medicationDTOs, drone));
+
+        // THEN
+        assertEquals("Only letters, numbers, underscore, dash available for name; "
+                + "Only upper case letters, underscore, numbers available for code; "
+                + "Maximum weight capacity for drone has been reached", thrown.getMessage());
     }
 
     @Test
@@ -107,8 +170,11 @@ class MedicationServiceTest {
                         .weight(200)
                         .build());
         Drone drone = Drone.builder()
-                .weightLimit(400)
+                .id(1L)
+                .weightLimit(500)
+                .loadedWeight(100)
                 .build();
+        when(droneRepository.addLoadedWeight(1L, 400)).thenReturn(1);
 
         // WHEN
         List<MedicationDTO> savedMeds = medicationService.addMedications(medicationDTOs, drone);
@@ -116,6 +182,55 @@ class MedicationServiceTest {
         // THEN
         verify(medicationRepository, times(1)).saveAll(anyCollection());
         savedMeds.forEach(med -> assertEquals(drone.getId(), med.getDroneId()));
+        assertEquals(500, drone.getLoadedWeight());
+        verify(eventPublisher).publishEvent(new MedicationsChangedEvent(1L));
+        verify(outboxService).medicationsLoaded(eq(1L), eq(500), anyList());
+    }
+
+    @Test
+    void addMedicationsFailLoadedWeightTest() {
+        // GIVEN
+        List<MedicationDTO> medicationDTOs = List.of(MedicationDTO.builder()
+                .name("name-1")
+                .code("CODE_1")
+                .weight(200)
+                .build());
+        Drone drone = Drone.builder()
+                .id(1L)
+                .weightLimit(300)
+                .loadedWeight(150)
+                .build();
+
+        // WHEN
+        CheckException thrown = assertThrows(CheckException.class,
+                () -> medicationService.addMedications(medicationDTOs, drone));
+
+        // THEN
+        assertEquals("Maximum weight capacity for drone has been reached", thrown.getMessage());
+        verify(droneRepository, never()).addLoadedWeight(any(), anyInt());
+    }
+
+    @Test
+    void addMedicationsFailConcurrentLoadTest() {
+        // GIVEN
+        List<MedicationDTO> medicationDTOs = List.of(MedicationDTO.builder()
+                .name("name-1")
+                .code("CODE_1")
+                .weight(200)
+                .build());
+        Drone drone = Drone.builder()
+                .id(1L)
+                .weightLimit(300)
+                .build();
+        when(droneRepository.addLoadedWeight(1L, 200)).thenReturn(0);
+
+        // WHEN
+        CheckException thrown = assertThrows(CheckException.class,
+                () -> medicationService.addMedications(medicationDTOs, drone));
+
+        // THEN
+        assertEquals("Maximum weight capacity for drone has been reached", thrown.getMessage());
+        verify(medicationRepository, never()).saveAll(anyCollection());
     }
 
     @Test
@@ -129,13 +244,15 @@ class MedicationServiceTest {
                 .name("name")
                 .weight(30)
                 .code("CODE")
-                .image(new byte[0])
+                .imageHash("hash")
                 .drone(drone)
                 .build();
         drone.setMedications(List.of(medication));
 
+        when(medicationRepository.findAllByDroneIdOrderById(1L)).thenReturn(List.of(medication));
+
         // WHEN
-        List<MedicationDTO> allDroneMedications = medicationService.getAllDroneMedications(drone);
+        List<MedicationDTO> allDroneMedications = medicationService.getAllDroneMedications(1L);
 
         // THEN
         assertEquals(drone.getMedications().size(), allDroneMedications.size());
@@ -143,7 +260,36 @@ class MedicationServiceTest {
         assertEquals(drone.getMedications().get(0).getName(), allDroneMedications.get(0).getName());
         assertEquals(drone.getMedications().get(0).getWeight(), allDroneMedications.get(0).getWeight());
         assertEquals(drone.getMedications().get(0).getCode(), allDroneMedications.get(0).getCode());
-        assertEquals(drone.getMedications().get(0).getImage().length, allDroneMedications.get(0).getImage().length);
+        assertEquals(drone.getMedications().get(0).getImageHash(), allDroneMedications.get(0).getImageHash());
         assertEquals(drone.getMedications().get(0).getDrone().getId(), allDroneMedications.get(0).getDroneId());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getMedicationImageTest() {
+        // GIVEN
+        Path path = Path.of("hash");
+
+        when(medicationRepository.findImageHashById(1L)).thenReturn(Optional.of("hash"));
+        when(medicationImageStore.find("hash")).thenReturn(Optional.of(path));
+
+        // WHEN
+        StoredImage image = medicationService.getMedicationImage(1L);
+
+        // THEN
+        assertEquals("hash", image.getHash());
+        assertEquals(path, image.getPath());
+    }
+
+    @Test
+    void getMedicationImageFailNoImageTest() {
+        // GIVEN
+        when(medicationRepository.findImageHashById(1L)).thenReturn(Optional.empty());
+
+        // WHEN
+        NotFoundException thrown = assertThrows(NotFoundException.class,
+                () -> medicationService.getMedicationImage(1L));
+
+        // THEN
+        assertEquals("No image found for medication with id: 1", thrown.getMessage());
+    }
+}
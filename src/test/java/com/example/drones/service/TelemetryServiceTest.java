@@ -0,0 +1,115 @@
+package com.example.drones.service;
+
+import com.example.drones.dto.BatteryReadingDTO;
+import com.example.drones.dto.TelemetryErrorDTO;
+import com.example.drones.dto.TelemetryResultDTO;
+import com.example.drones.index.FleetIndex;
+import com.example.drones.repository.DroneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.context.jdbc.SqlConfig;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@Sql(value = "/init_data/drone_repository_init_data.sql", config = @SqlConfig)
+@Transactional
+class TelemetryServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 1, 1, 12, 0);
+
+    @Autowired
+    private TelemetryService telemetryService;
+    @Autowired
+    private DroneService droneService;
+    @Autowired
+    private DroneRepository droneRepository;
+    @Autowired
+    private FleetIndex fleetIndex;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void init() {
+        fleetIndex.rebuild();
+    }
+
+    @Test
+    void submitAndFlushTest() {
+        // GIVEN
+        List<BatteryReadingDTO> readings = List.of(
+                new BatteryReadingDTO(4L, 50, NOW),
+                new BatteryReadingDTO(4L, 60, NOW.minusSeconds(1)),
+                new BatteryReadingDTO(4L, 45, NOW.plusSeconds(1)),
+                new BatteryReadingDTO(6L, 80, null));
+
+        // WHEN
+        TelemetryResultDTO result = telemetryService.submit(readings);
+
+        // THEN
+        assertEquals(4, result.getAccepted());
+        assertEquals(2, telemetryService.getBufferedCount());
+        assertEquals(45, droneService.getDroneBatteryLevel(4L));
+        assertEquals(100, droneRepository.findBatteryCapacityById(4L).orElseThrow());
+
+        // WHEN
+        telemetryService.flush();
+
+        // THEN
+        assertEquals(0, telemetryService.getBufferedCount());
+        assertEquals(45, droneRepository.findBatteryCapacityById(4L).orElseThrow());
+        assertEquals(80, droneRepository.findBatteryCapacityById(6L).orElseThrow());
+        assertEquals(45, fleetIndex.get(4L).getBatteryCapacity());
+        assertEquals(45, droneService.getDroneBatteryLevel(4L));
+    }
+
+    @Test
+    void submitRejectedTest() {
+        // GIVEN
+        List<BatteryReadingDTO> readings = List.of(
+                new BatteryReadingDTO(100L, 50, NOW),
+                new BatteryReadingDTO(4L, 101, NOW),
+                new BatteryReadingDTO(null, 50, NOW));
+
+        // WHEN
+        TelemetryResultDTO result = telemetryService.submit(readings);
+
+        // THEN
+        assertEquals(0, result.getAccepted());
+        assertEquals(List.of(
+                new TelemetryErrorDTO(0, 100L, "No drone found with id: 100"),
+                new TelemetryErrorDTO(1, 4L, "Battery level can't be more than 100 or less than 0"),
+                new TelemetryErrorDTO(2, null, "No drone found with id: null")),
+                result.getRejected());
+        assertEquals(0, telemetryService.getBufferedCount());
+    }
+
+    @Test
+    void submitOlderThanFlushedRejectedTest() {
+        // GIVEN
+        // own service: flushed reading times of the shared one depend on other tests
+        TelemetryService telemetryService = new TelemetryService(jdbcTemplate, fleetIndex);
+        telemetryService.submit(List.of(new BatteryReadingDTO(4L, 45, NOW)));
+        telemetryService.flush();
+
+        // WHEN
+        TelemetryResultDTO result = telemetryService.submit(List.of(
+                new BatteryReadingDTO(4L, 60, NOW.minusSeconds(1)),
+                new BatteryReadingDTO(4L, 40, NOW.plusSeconds(1))));
+        telemetryService.flush();
+
+        // THEN
+        assertEquals(1, result.getAccepted());
+        assertEquals(List.of(new TelemetryErrorDTO(0, 4L, "Reading is older than the last applied one")),
+                result.getRejected());
+        assertEquals(40, droneRepository.findBatteryCapacityById(4L).orElseThrow());
+        assertEquals(40, fleetIndex.get(4L).getBatteryCapacity());
+    }
+}
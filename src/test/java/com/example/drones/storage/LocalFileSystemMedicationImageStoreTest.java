@@ -0,0 +1,84 @@
+package com.example.drones.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalFileSystemMedicationImageStoreTest {
+    @TempDir
+    Path root;
+
+    private LocalFileSystemMedicationImageStore imageStore;
+
+    @BeforeEach
+    void init() throws IOException {
+        imageStore = new LocalFileSystemMedicationImageStore(root);
+    }
+
+    @Test
+    void storeTest() throws IOException {
+        // GIVEN
+        byte[] content = "image".getBytes(StandardCharsets.UTF_8);
+
+        // WHEN
+        String hash = imageStore.store(new ByteArrayInputStream(content));
+
+        // THEN
+        assertEquals("6105d6cc76af400325e94d588ce511be5bfdbb73b437dc51eca43917d7a43e3d", hash);
+        Path path = imageStore.find(hash).orElseThrow();
+        assertArrayEquals(content, Files.readAllBytes(path));
+        assertEquals(root.resolve("61").resolve("05").resolve(hash), path);
+    }
+
+    @Test
+    void storeSameContentOnceTest() throws IOException {
+        // GIVEN
+        byte[] content = "image".getBytes(StandardCharsets.UTF_8);
+
+        // WHEN
+        String first = imageStore.store(new ByteArrayInputStream(content));
+        String second = imageStore.store(new ByteArrayInputStream(content));
+        String other = imageStore.store(new ByteArrayInputStream("other".getBytes(StandardCharsets.UTF_8)));
+
+        // THEN
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(2, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void storeLargeContentTest() throws IOException {
+        // GIVEN
+        byte[] content = new byte[5 * 1024 * 1024 + 7];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        // WHEN
+        String hash = imageStore.store(new ByteArrayInputStream(content));
+
+        // THEN
+        assertArrayEquals(content, Files.readAllBytes(imageStore.find(hash).orElseThrow()));
+    }
+
+    @Test
+    void findUnknownHashTest() {
+        assertTrue(imageStore.find("0".repeat(64)).isEmpty());
+        assertTrue(imageStore.find("../../etc/passwd").isEmpty());
+        assertTrue(imageStore.find(null).isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.drones.validation;
+
+import com.example.drones.dto.MedicationDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MedicationValidatorTest {
+    private final MedicationValidator medicationValidator = new MedicationValidator();
+
+    @Test
+    void scannersMatchRegexTest() {
+        // GIVEN
+        List<String> values = List.of("", "name", "Name_1-2", "CODE_1", "code", "CODE-1", "name!", "na me",
+                "имя", "NAMEé", "\u0000", "A😀");
+
+        // WHEN - THEN
+        values.forEach(value -> {
+            assertEquals(value.matches("^[a-zA-Z0-9_-]*$"), MedicationValidator.isValidName(value), value);
+            assertEquals(value.matches("^[A-Z0-9_]*$"), MedicationValidator.isValidCode(value), value);
+        });
+    }
+
+    @Test
+    void validateReportsAllViolationsTest() {
+        // GIVEN
+        List<MedicationDTO> medicationDTOs = List.of(
+                MedicationDTO.builder().name("name!").code("CODE").weight(100).build(),
+                MedicationDTO.builder().name("name").code("CODE").weight(100).build(),
+                MedicationDTO.builder().name("name").code("code").weight(100).build());
+
+        // WHEN
+        List<MedicationViolation> violations = medicationValidator.validate(medicationDTOs, 250);
+
+        // THEN
+        assertEquals(List.of(
+                new MedicationViolation(0, MedicationValidator.NAME_MESSAGE),
+                new MedicationViolation(2, MedicationValidator.CODE_MESSAGE),
+                new MedicationViolation(MedicationViolation.MANIFEST, MedicationValidator.WEIGHT_MESSAGE)),
+                violations);
+    }
+
+    @Test
+    void validateRequiresNameNotCodeTest() {
+        // GIVEN
+        List<MedicationDTO> medicationDTOs = List.of(
+                MedicationDTO.builder().code("CODE").weight(10).build(),
+                MedicationDTO.builder().name("name").weight(10).build());
+
+        // WHEN
+        List<MedicationViolation> violations = medicationValidator.validateFormats(medicationDTOs);
+
+        // THEN
+        assertEquals(List.of(new MedicationViolation(0, MedicationValidator.NAME_REQUIRED_MESSAGE)), violations);
+        assertFalse(MedicationValidator.isValidName(null));
+        assertTrue(MedicationValidator.isValidCode(null));
+    }
+
+    @Test
+    void validateWeightOverflowTest() {
+        // GIVEN
+        List<MedicationDTO> medicationDTOs = List.of(
+                MedicationDTO.builder().name("name").weight(Integer.MAX_VALUE).build(),
+                MedicationDTO.builder().name("name").weight(Integer.MAX_VALUE).build());
+
+        // WHEN
+        List<MedicationViolation> violations = medicationValidator.validate(medicationDTOs, 500);
+
+        // THEN
+        assertEquals(List.of(new MedicationViolation(MedicationViolation.MANIFEST,
+                MedicationValidator.WEIGHT_MESSAGE)), violations);
+    }
+
+    @Test
+    void validateRejectsNonPositiveWeightTest() {
+        // GIVEN
+        List<MedicationDTO> medicationDTOs = List.of(
+                MedicationDTO.builder().name("name").weight(100).build(),
+                MedicationDTO.builder().name("name").weight(-50).build(),
+                MedicationDTO.builder().name("name").weight(0).build());
+
+        // WHEN
+        List<MedicationViolation> violations = medicationValidator.validate(medicationDTOs, 100);
+
+        // THEN
+        assertEquals(List.of(
+                new MedicationViolation(1, MedicationValidator.ITEM_WEIGHT_MESSAGE),
+                new MedicationViolation(2, MedicationValidator.ITEM_WEIGHT_MESSAGE)), violations);
+    }
+
+    @Test
+    void validateFormatsIgnoresWeightTest() {
+        // GIVEN
+        List<MedicationDTO> medicationDTOs = List.of(
+                MedicationDTO.builder().name("name").code("CODE").weight(1000).build());
+
+        // WHEN - THEN
+        assertTrue(medicationValidator.validateFormats(medicationDTOs).isEmpty());
+    }
+}